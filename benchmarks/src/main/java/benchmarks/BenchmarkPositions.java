@@ -0,0 +1,50 @@
+package benchmarks;
+
+import chess.*;
+
+/**
+ * The positions the benchmarks run on, built through the public API
+ */
+public class BenchmarkPositions {
+
+    public static ChessGame create(String name) {
+        try {
+            return switch (name) {
+                case "opening" -> opening();
+                case "middlegame" -> PerftPositions.find("position6").newGame();
+                case "endgame" -> endgame();
+                default -> throw new IllegalArgumentException("Unknown position: " + name);
+            };
+        } catch (InvalidMoveException e) {
+            throw new IllegalStateException("Benchmark opening moves should all be valid", e);
+        }
+    }
+
+    /**
+     * 1. e4 e5 2. Nf3 Nc6
+     */
+    private static ChessGame opening() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null));
+        return game;
+    }
+
+    /**
+     * King, rook and pawn against king and pawn
+     */
+    private static ChessGame endgame() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 7), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(4, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        board.addPiece(new ChessPosition(3, 2), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(new ChessPosition(7, 5), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(6, 6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        return game;
+    }
+}
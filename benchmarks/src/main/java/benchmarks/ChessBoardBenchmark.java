@@ -0,0 +1,64 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import chess.ChessPosition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessBoardBenchmark {
+
+    private ChessBoard board;
+    private ChessBoard equalBoard;
+
+    @Setup
+    public void setUp() {
+        board = new ChessBoard();
+        board.resetBoard();
+        equalBoard = new ChessBoard();
+        equalBoard.resetBoard();
+    }
+
+    @Benchmark
+    public ChessBoard resetBoard() {
+        board.resetBoard();
+        return board;
+    }
+
+    @Benchmark
+    public int boardHashCode() {
+        return board.hashCode();
+    }
+
+    @Benchmark
+    public boolean boardEquals() {
+        return board.equals(equalBoard);
+    }
+
+    @Benchmark
+    public ChessBoard copy() {
+        return board.copy();
+    }
+
+    /**
+     * Copying by hand through addPiece, the way a board had to be copied
+     * before copy() existed, for comparison
+     */
+    @Benchmark
+    public ChessBoard copyBySquares() {
+        ChessBoard copy = new ChessBoard();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = ChessPosition.of(row, col);
+                copy.addPiece(position, board.getPiece(position));
+            }
+        }
+        return copy;
+    }
+}
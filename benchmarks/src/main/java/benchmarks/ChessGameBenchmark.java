@@ -0,0 +1,128 @@
+package benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChessGameBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String position;
+
+    private ChessGame game;
+    private List<ChessPosition> movingPieces;
+    private ChessMove firstMove;
+
+    @Setup
+    public void setUp() {
+        game = BenchmarkPositions.create(position);
+        movingPieces = game.getBoard().getTeamPositions(game.getTeamTurn());
+        Collection<ChessMove> moves = game.validMoves(game.getTeamTurn());
+        firstMove = moves.iterator().next();
+    }
+
+    /**
+     * validMoves for every piece of the team to move
+     */
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (ChessPosition square : movingPieces) {
+            blackhole.consume(game.validMoves(square));
+        }
+    }
+
+    /**
+     * Every valid move of the team to move in a single call
+     */
+    @Benchmark
+    public Collection<ChessMove> teamValidMoves() {
+        return game.validMoves(game.getTeamTurn());
+    }
+
+    @Benchmark
+    public ChessGame copy() {
+        return game.copy();
+    }
+
+    /**
+     * makeMove followed by undoMove, so every invocation starts from the same position
+     */
+    @Benchmark
+    public void makeMove() throws InvalidMoveException {
+        game.makeMove(firstMove);
+        game.undoMove();
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(game.getTeamTurn());
+    }
+
+    /**
+     * Positions for the status benchmarks. A game caches its status by
+     * position key, so asking one game over and over would only time the
+     * cache. Snapshots don't cache, and work a status out exactly as a game
+     * does when its cache misses, so the benchmarks cycle through the
+     * positions two moves on from the starting one, each with its own key,
+     * with nothing but an index step around each call.
+     */
+    @State(Scope.Thread)
+    public static class StatusState {
+        private static final int MAX_POSITIONS = 64;
+
+        @Param({"opening", "middlegame", "endgame"})
+        public String position;
+
+        private Position[] positions;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp() throws InvalidMoveException {
+            ChessGame game = BenchmarkPositions.create(position);
+            Map<Long, Position> byKey = new LinkedHashMap<>();
+            for (ChessMove move : game.validMoves(game.getTeamTurn())) {
+                ChessGame child = game.copy();
+                child.makeMove(move);
+                for (ChessMove reply : child.validMoves(child.getTeamTurn())) {
+                    if (byKey.size() == MAX_POSITIONS) {
+                        break;
+                    }
+                    ChessGame grandchild = child.copy();
+                    grandchild.makeMove(reply);
+                    byKey.putIfAbsent(grandchild.zobristKey(), grandchild.getPosition());
+                }
+            }
+            positions = byKey.values().toArray(new Position[0]);
+        }
+
+        Position next() {
+            Position position = positions[next];
+            next = next + 1 == positions.length ? 0 : next + 1;
+            return position;
+        }
+    }
+
+    @Benchmark
+    public boolean isInCheckmate(StatusState state) {
+        Position position = state.next();
+        return position.getStatus(position.getTeamTurn()) == ChessGame.GameStatus.CHECKMATE;
+    }
+
+    @Benchmark
+    public boolean isInStalemate(StatusState state) {
+        Position position = state.next();
+        return position.getStatus(position.getTeamTurn()) == ChessGame.GameStatus.STALEMATE;
+    }
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessGameCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The binary codec, to compare with {@link GsonBenchmark}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String position;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(ChessGameCodec.MAX_ENCODED_SIZE);
+    private ChessGame game;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() {
+        game = BenchmarkPositions.create(position);
+        bytes = ChessGameCodec.encode(game);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return ChessGameCodec.encode(game);
+    }
+
+    /**
+     * Encoding into a reused buffer, the way a writer batching many games would
+     */
+    @Benchmark
+    public ByteBuffer encodeReused() {
+        buffer.clear();
+        ChessGameCodec.encode(game, buffer);
+        return buffer;
+    }
+
+    @Benchmark
+    public ChessGame decode() {
+        return ChessGameCodec.decode(bytes);
+    }
+
+    @Benchmark
+    public ChessGame roundTrip() {
+        return ChessGameCodec.decode(ChessGameCodec.encode(game));
+    }
+}
@@ -0,0 +1,48 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Fen;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String position;
+
+    private final StringBuilder out = new StringBuilder(90);
+    private ChessGame game;
+    private String fen;
+
+    @Setup
+    public void setUp() {
+        game = BenchmarkPositions.create(position);
+        fen = Fen.write(game);
+    }
+
+    @Benchmark
+    public ChessGame parse() {
+        return Fen.parse(fen);
+    }
+
+    @Benchmark
+    public String write() {
+        return Fen.write(game);
+    }
+
+    /**
+     * Writing into a reused builder, the way a bulk export would
+     */
+    @Benchmark
+    public StringBuilder writeReused() {
+        out.setLength(0);
+        return Fen.write(game, out);
+    }
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessJson;
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GsonBenchmark {
+
+    @Param({"opening", "middlegame", "endgame"})
+    public String position;
+
+    private final Gson gson = new Gson();
+    private final Gson compactGson = ChessJson.gson();
+    private ChessGame game;
+    private String json;
+    private String compactJson;
+
+    @Setup
+    public void setUp() {
+        game = BenchmarkPositions.create(position);
+        json = gson.toJson(game);
+        compactJson = compactGson.toJson(game);
+    }
+
+    @Benchmark
+    public String toJson() {
+        return gson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame fromJson() {
+        return gson.fromJson(json, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame roundTrip() {
+        return gson.fromJson(gson.toJson(game), ChessGame.class);
+    }
+
+    @Benchmark
+    public String compactToJson() {
+        return compactGson.toJson(game);
+    }
+
+    @Benchmark
+    public ChessGame compactFromJson() {
+        return compactGson.fromJson(compactJson, ChessGame.class);
+    }
+
+    @Benchmark
+    public ChessGame compactRoundTrip() {
+        return compactGson.fromJson(compactGson.toJson(game), ChessGame.class);
+    }
+}
@@ -0,0 +1,75 @@
+package chess;
+
+/**
+ * Helpers for working with 64-bit bitboards.
+ * <p>
+ * Squares are numbered 0-63 starting at row 1, column 1 (bit 0) and
+ * increasing across each row, so row 2 column 1 is bit 8 and
+ * row 8 column 8 is bit 63.
+ */
+final class Bitboards {
+
+    static final int PIECE_KINDS = 12;
+
+    static final long ROW_1 = 0x00000000000000FFL;
+    static final long ROW_8 = 0xFF00000000000000L;
+    static final long COLUMN_1 = 0x0101010101010101L;
+    static final long COLUMN_8 = 0x8080808080808080L;
+    /**
+     * The light squares, starting with row 1 column 2
+     */
+    static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+
+    private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+    private Bitboards() {
+    }
+
+    static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the position is off the board, so
+     *                                  it can't wrap around onto another square
+     */
+    static int square(ChessPosition position) {
+        int row = position.getRow();
+        int col = position.getColumn();
+        if (!isOnBoard(row, col)) {
+            throw new IllegalArgumentException("Position is off the board: " + position);
+        }
+        return square(row, col);
+    }
+
+    static int rowOf(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    static int columnOf(int square) {
+        return (square & 7) + 1;
+    }
+
+    static long bit(int square) {
+        return 1L << square;
+    }
+
+    static boolean isOnBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    /**
+     * @return the index of the bitboard holding pieces of this color and type
+     */
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    static ChessGame.TeamColor colorOf(int pieceIndex) {
+        return pieceIndex < 6 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+    }
+
+    static ChessPiece.PieceType typeOf(int pieceIndex) {
+        return TYPES[pieceIndex % 6];
+    }
+}
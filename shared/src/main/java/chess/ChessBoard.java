@@ -1,30 +1,65 @@
 package chess;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Objects;
+import java.util.List;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
+ * Pieces are stored as twelve bitboards, one per color and piece type, so
+ * occupancy, color and piece-type queries are single bitwise operations.
+ * {@link #addPiece} and {@link #getPiece} are views over those bitboards.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
 public class ChessBoard {
 
-    ChessPiece[][] board = new ChessPiece[8][8];
+    private static final ChessPiece.PieceType[] BACK_ROW = {
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.KING, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.ROOK
+    };
+
+    long[] bitboards = new long[Bitboards.PIECE_KINDS];
+    long[] colorOccupancy = new long[2];
+    long zobristKey;
 
     public ChessBoard() {
 
     }
 
+    /**
+     * Makes an independent board with the same pieces. The bitboards are
+     * copied as arrays rather than re-adding each piece, and the pieces
+     * themselves are the shared {@link ChessPiece#of} instances, so a copy
+     * is a few dozen words of memory.
+     *
+     * @return a new board that can be changed without affecting this one
+     */
+    public ChessBoard copy() {
+        ChessBoard copy = new ChessBoard();
+        System.arraycopy(bitboards, 0, copy.bitboards, 0, bitboards.length);
+        System.arraycopy(colorOccupancy, 0, copy.colorOccupancy, 0, colorOccupancy.length);
+        copy.zobristKey = zobristKey;
+        return copy;
+    }
+
     /**
      * Adds a chess piece to the chessboard
      *
      * @param position where to add the piece to
      * @param piece    the piece to add
+     * @throws IllegalArgumentException if the position is off the board, in
+     *                                  which case the board is left unchanged
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        board[position.getRow()-1][position.getColumn()-1] = piece;
+        int square = Bitboards.square(position);
+        clearSquare(square);
+        if (piece != null) {
+            setPiece(square, Bitboards.pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     /**
@@ -33,9 +68,185 @@ public class ChessBoard {
      * @param position The position to get the piece from
      * @return Either the piece at the position, or null if no piece is at that
      * position
+     * @throws IllegalArgumentException if the position is off the board
      */
     public ChessPiece getPiece(ChessPosition position) {
-        return board[position.getRow()-1][position.getColumn()-1];
+        int pieceIndex = pieceIndexAt(Bitboards.square(position));
+        return pieceIndex < 0 ? null : ChessPiece.of(pieceIndex);
+    }
+
+    /**
+     * @return bitboard of the squares holding pieces of the given color and type
+     */
+    public long getBitboard(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return bitboards[Bitboards.pieceIndex(color, type)];
+    }
+
+    /**
+     * @return bitboard of the squares holding pieces of the given color
+     */
+    public long getOccupancy(ChessGame.TeamColor color) {
+        return colorOccupancy[color.ordinal()];
+    }
+
+    /**
+     * @return bitboard of every occupied square
+     */
+    public long getOccupancy() {
+        return colorOccupancy[0] | colorOccupancy[1];
+    }
+
+    /**
+     * Lists where a team's pieces stand by walking the set bits of its
+     * occupancy bitboard, so an endgame visits a handful of pieces rather
+     * than all 64 squares
+     *
+     * @param color which team's pieces to list
+     * @return the positions of that team's pieces, from row 1 column 1 upward
+     */
+    public List<ChessPosition> getTeamPositions(ChessGame.TeamColor color) {
+        long pieces = colorOccupancy[color.ordinal()];
+        List<ChessPosition> positions = new ArrayList<>(Long.bitCount(pieces));
+        while (pieces != 0) {
+            positions.add(ChessPosition.ofSquare(Long.numberOfTrailingZeros(pieces)));
+            pieces &= pieces - 1;
+        }
+        return positions;
+    }
+
+    /**
+     * @return how many pieces the given team has on the board
+     */
+    public int getPieceCount(ChessGame.TeamColor color) {
+        return Long.bitCount(colorOccupancy[color.ordinal()]);
+    }
+
+    /**
+     * @return True if any piece is at the given position
+     */
+    public boolean isOccupied(ChessPosition position) {
+        return (getOccupancy() & Bitboards.bit(Bitboards.square(position))) != 0;
+    }
+
+    /**
+     * Gets the Zobrist hash of the piece placement. It is updated with a
+     * single XOR whenever a piece is added or removed, so reading it is free.
+     *
+     * @return 64-bit key identifying the arrangement of pieces on this board
+     */
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Gets where a team's king is. The king bitboard is kept up to date by
+     * {@link #addPiece}, so this is a single bit scan rather than a search
+     *
+     * @param color which team's king to find
+     * @return the king's position, or null if that team has no king on the board
+     */
+    public ChessPosition getKingPosition(ChessGame.TeamColor color) {
+        int square = kingSquare(color.ordinal());
+        return square < 0 ? null : ChessPosition.ofSquare(square);
+    }
+
+    /**
+     * @return the square of the given color's king, or -1 if it has none
+     */
+    int kingSquare(int color) {
+        long king = bitboards[color * 6 + ChessPiece.PieceType.KING.ordinal()];
+        return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * Determines if any piece of a team attacks a square. Instead of
+     * generating the attacker's moves, this looks outward from the square
+     * along knight, king and pawn patterns and slider rays, and stops at the
+     * first attacker found.
+     *
+     * @param position the square to test
+     * @param attackerColor the team that may be attacking it
+     * @return True if a piece of attackerColor attacks the square
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor attackerColor) {
+        return isSquareAttacked(Bitboards.square(position), attackerColor.ordinal(), getOccupancy());
+    }
+
+    /**
+     * Same as {@link #isSquareAttacked(ChessPosition, ChessGame.TeamColor)}, but
+     * slider rays are cast through the given occupancy instead of the board's,
+     * so callers can ask about positions that differ by a piece or two
+     */
+    boolean isSquareAttacked(int square, int attackerColor, long occupancy) {
+        int base = attackerColor * 6;
+        if ((LeaperAttacks.PAWN[attackerColor ^ 1][square] & bitboards[base + ChessPiece.PieceType.PAWN.ordinal()]) != 0) {
+            return true;
+        }
+        if ((LeaperAttacks.KNIGHT[square] & bitboards[base + ChessPiece.PieceType.KNIGHT.ordinal()]) != 0) {
+            return true;
+        }
+        if ((LeaperAttacks.KING[square] & bitboards[base + ChessPiece.PieceType.KING.ordinal()]) != 0) {
+            return true;
+        }
+        long queens = bitboards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        long diagonal = bitboards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        if (diagonal != 0 && (SlidingAttacks.bishopAttacks(square, occupancy) & diagonal) != 0) {
+            return true;
+        }
+        long straight = bitboards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        return straight != 0 && (SlidingAttacks.rookAttacks(square, occupancy) & straight) != 0;
+    }
+
+    /**
+     * @return bitboard of every piece of attackerColor that attacks the square,
+     * with slider rays cast through the given occupancy
+     */
+    long attackersOf(int square, int attackerColor, long occupancy) {
+        int base = attackerColor * 6;
+        long queens = bitboards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        return (LeaperAttacks.PAWN[attackerColor ^ 1][square] & bitboards[base + ChessPiece.PieceType.PAWN.ordinal()])
+                | (LeaperAttacks.KNIGHT[square] & bitboards[base + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | (LeaperAttacks.KING[square] & bitboards[base + ChessPiece.PieceType.KING.ordinal()])
+                | (SlidingAttacks.bishopAttacks(square, occupancy) & (bitboards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens))
+                | (SlidingAttacks.rookAttacks(square, occupancy) & (bitboards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens));
+    }
+
+    /**
+     * @return index of the bitboard holding the piece on this square, or -1 if empty
+     */
+    int pieceIndexAt(int square) {
+        long bit = Bitboards.bit(square);
+        if ((getOccupancy() & bit) == 0) {
+            return -1;
+        }
+        int first = (colorOccupancy[0] & bit) != 0 ? 0 : 6;
+        for (int i = first; i < first + 6; i++) {
+            if ((bitboards[i] & bit) != 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    void setPiece(int square, int pieceIndex) {
+        long bit = Bitboards.bit(square);
+        bitboards[pieceIndex] |= bit;
+        colorOccupancy[pieceIndex / 6] |= bit;
+        zobristKey ^= Zobrist.PIECE_SQUARE[pieceIndex][square];
+    }
+
+    void removePiece(int square, int pieceIndex) {
+        long bit = Bitboards.bit(square);
+        bitboards[pieceIndex] &= ~bit;
+        colorOccupancy[pieceIndex / 6] &= ~bit;
+        zobristKey ^= Zobrist.PIECE_SQUARE[pieceIndex][square];
+    }
+
+    void clearSquare(int square) {
+        int pieceIndex = pieceIndexAt(square);
+        if (pieceIndex >= 0) {
+            removePiece(square, pieceIndex);
+        }
     }
 
     /**
@@ -43,47 +254,30 @@ public class ChessBoard {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        board = new ChessPiece[8][8];
-        addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(1, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(1, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(1, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(1, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
-
-        addPiece(new ChessPosition(2, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 3), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 6), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 7), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(2, 8), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
-
-        addPiece(new ChessPosition(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-        addPiece(new ChessPosition(8, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN));
-        addPiece(new ChessPosition(8, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
-        addPiece(new ChessPosition(8, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
-        addPiece(new ChessPosition(8, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
-        addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
-
-        addPiece(new ChessPosition(7, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 2), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 3), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 5), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 6), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 7), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
-        addPiece(new ChessPosition(7, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+        Arrays.fill(bitboards, 0L);
+        Arrays.fill(colorOccupancy, 0L);
+        zobristKey = 0;
+        for (int col = 1; col <= 8; col++) {
+            ChessPiece.PieceType type = BACK_ROW[col - 1];
+            setPiece(Bitboards.square(1, col), Bitboards.pieceIndex(ChessGame.TeamColor.WHITE, type));
+            setPiece(Bitboards.square(2, col), Bitboards.pieceIndex(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            setPiece(Bitboards.square(7, col), Bitboards.pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            setPiece(Bitboards.square(8, col), Bitboards.pieceIndex(ChessGame.TeamColor.BLACK, type));
+        }
     }
 
     @Override
     public String toString() {
-        return "Board: " + Arrays.deepToString(board);
+        StringBuilder text = new StringBuilder("Board: ");
+        for (int row = 8; row >= 1; row--) {
+            text.append('|');
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = getPiece(ChessPosition.of(row, col));
+                text.append(piece == null ? ' ' : pieceChar(piece)).append('|');
+            }
+            text.append('\n');
+        }
+        return text.toString();
     }
 
     @Override
@@ -92,11 +286,23 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(board, that.board);
+        return Arrays.equals(bitboards, that.bitboards);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(board);
+        return Long.hashCode(zobristKey);
+    }
+
+    private static char pieceChar(ChessPiece piece) {
+        char c = switch (piece.getPieceType()) {
+            case KING -> 'k';
+            case QUEEN -> 'q';
+            case BISHOP -> 'b';
+            case KNIGHT -> 'n';
+            case ROOK -> 'r';
+            case PAWN -> 'p';
+        };
+        return piece.getTeamColor() == ChessGame.TeamColor.WHITE ? Character.toUpperCase(c) : c;
     }
 }
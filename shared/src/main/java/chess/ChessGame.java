@@ -1,12 +1,28 @@
 package chess;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * For a class that can manage a chess game, making moves on a board
  * <p>
+ * Any number of threads may call the query methods ({@link #validMoves},
+ * {@link #isInCheck}, {@link #getStatus}, the checkmate and stalemate tests
+ * and the other getters of game state) while one thread changes the game
+ * through its public methods. Each change holds a {@link StampedLock} for
+ * writing. Each query reads the live game under an optimistic stamp and
+ * checks afterwards that no change ran while it was reading. If one did, the
+ * query runs again under the read lock. Queries therefore never see a
+ * half-made move, and when nothing is being changed they take no lock at all.
+ * {@link #getPosition()} gives a whole position that stays the same however
+ * many queries are made on it.
+ * <p>
+ * The board returned by {@link #getBoard()} is the live board and is not
+ * covered by this, so only the writing thread should use it.
+ * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
@@ -14,12 +30,68 @@ public class ChessGame {
 
     private TeamColor teamTurn;
     private ChessBoard gameBoard;
-    
+    private int state = GameState.encode(GameState.ALL_CASTLING, 0, 0);
+    private transient AtomicReferenceArray<CachedStatus> statusCache = new AtomicReferenceArray<>(2);
+    private transient volatile Position position;
+    /**
+     * The board the current snapshot was taken from. Gson fills in a game's
+     * fields after its constructor has published, so a different board here
+     * means the snapshot belongs to a board that has since been replaced.
+     * Copies start with none and take their first snapshot when asked.
+     */
+    private transient ChessBoard positionBoard;
+    /**
+     * How many snapshots this game has published; see {@link Position#getVersion()}
+     */
+    private transient long version;
+    private transient long[] undoStack = new long[64];
+    /**
+     * The Zobrist key of the position before each move in the undo stack,
+     * for spotting repetitions
+     */
+    private transient long[] keyHistory = new long[64];
+    private transient int undoCount;
+    private transient StampedLock lock = new StampedLock();
 
     public ChessGame() {
         this.teamTurn = TeamColor.WHITE;
         this.gameBoard = new ChessBoard();
         gameBoard.resetBoard();
+        publishPosition();
+    }
+
+    /**
+     * Makes a game around an existing board, publishing its first
+     * {@link Position} snapshot before the game can be shared
+     */
+    ChessGame(TeamColor teamTurn, ChessBoard gameBoard, int state) {
+        this.teamTurn = teamTurn;
+        this.gameBoard = gameBoard;
+        this.state = state;
+        publishPosition();
+    }
+
+    /**
+     * Makes an independent game in the same position, for search, analysis
+     * or handing to another thread. The board is copied with
+     * {@link ChessBoard#copy()} and the move history with it, so moves
+     * made before the copy can still be taken back on either game. The
+     * copy takes its {@link Position} snapshot the first time one is asked
+     * for, so copies made for search never take one.
+     *
+     * @return a new game that can be played on without affecting this one
+     */
+    public ChessGame copy() {
+        return read(() -> new ChessGame(this));
+    }
+
+    private ChessGame(ChessGame source) {
+        this.teamTurn = source.teamTurn;
+        this.gameBoard = source.gameBoard.copy();
+        this.state = source.state;
+        this.undoStack = Arrays.copyOf(source.undoStack, Math.max(source.undoCount, 16));
+        this.keyHistory = Arrays.copyOf(source.keyHistory, undoStack.length);
+        this.undoCount = source.undoCount;
     }
 
     /**
@@ -35,7 +107,17 @@ public class ChessGame {
      * @param team the team whose turn it is
      */
     public void setTeamTurn(TeamColor team) {
-        teamTurn = team;
+        long stamp = lock.writeLock();
+        try {
+            if (team != teamTurn) {
+                //an en passant capture belongs to the team whose turn it was
+                state = GameState.withoutEnPassant(state);
+            }
+            teamTurn = team;
+            publishPosition();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
     }
 
     /**
@@ -46,6 +128,26 @@ public class ChessGame {
         BLACK
     }
 
+    /**
+     * Enum identifying where a team stands at the start of its turn
+     */
+    public enum GameStatus {
+        ONGOING,
+        CHECK,
+        CHECKMATE,
+        STALEMATE,
+        DRAW_BY_REPETITION,
+        DRAW_BY_FIFTY_MOVES,
+        DRAW_BY_INSUFFICIENT_MATERIAL
+    }
+
+    /**
+     * A status together with the key of the position it was worked out for,
+     * so readers never see one without the other
+     */
+    private record CachedStatus(long key, GameStatus status) {
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -54,33 +156,36 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        ChessPiece myPiece = gameBoard.getPiece(startPosition);
+        return read(() -> validMoves(gameBoard, teamTurn, state, startPosition));
+    }
+
+    static Collection<ChessMove> validMoves(ChessBoard board, TeamColor teamTurn, int state,
+                                            ChessPosition startPosition) {
+        ChessPiece myPiece = board.getPiece(startPosition);
         if (myPiece == null) {return null;}
         TeamColor myColor = myPiece.getTeamColor();
 
-        Collection<ChessMove> allMoves = myPiece.pieceMoves(gameBoard, startPosition);
-        Collection<ChessMove> verifiedMoves = new ArrayList<>();
-
-        for (ChessMove move : allMoves) {
-            ChessPiece victimPiece = null;
-            ChessPosition startPos = move.getStartPosition();
-            ChessPosition endPos = move.getEndPosition();
-
-            if (gameBoard.getPiece(endPos) != null) {
-                victimPiece = gameBoard.getPiece(endPos);
-            }
-
-            gameBoard.addPiece(endPos, myPiece);
-            gameBoard.addPiece(startPos, null);
-            if (!isInCheck(myColor)) {
-                verifiedMoves.add(move);
-            }
-
-            gameBoard.addPiece(startPos, myPiece);
-            gameBoard.addPiece(endPos, victimPiece);
-        }
+        MoveList legalMoves = new MoveList();
+        long startSquare = Bitboards.bit(Bitboards.square(startPosition));
+        MoveGenerator.generateLegalMoves(board, myColor, GameState.forTeam(state, teamTurn, myColor), startSquare,
+                legalMoves);
+        return legalMoves.toChessMoves();
+    }
 
-        return verifiedMoves;
+    /**
+     * Gets every valid move of a team in one pass over its pieces, rather
+     * than calling {@link #validMoves(ChessPosition)} square by square
+     *
+     * @param teamColor which team to get valid moves for
+     * @return the team's valid moves, empty if it has none
+     */
+    public Collection<ChessMove> validMoves(TeamColor teamColor) {
+        return read(() -> {
+            MoveList legalMoves = new MoveList();
+            MoveGenerator.generateLegalMoves(gameBoard, teamColor, GameState.forTeam(state, teamTurn, teamColor), -1L,
+                    legalMoves);
+            return legalMoves.toChessMoves();
+        });
     }
 
     /**
@@ -90,95 +195,254 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        ChessPosition startPos = move.getStartPosition();
-        ChessPosition endPos = move.getEndPosition();
-        ChessPiece.PieceType promPiece = move.getPromotionPiece();
-        ChessPiece myPiece = gameBoard.getPiece(startPos);
+        checkOnBoard(move);
+        long stamp = lock.writeLock();
+        try {
+            ChessPiece myPiece = gameBoard.getPiece(move.getStartPosition());
+            if (myPiece == null) {
+                throw new InvalidMoveException("No piece at start position");
+            }
 
-        if (myPiece == null) {
-            throw new InvalidMoveException("No piece at start position");
-        }
+            TeamColor moveColor = myPiece.getTeamColor();
 
-        TeamColor moveColor = myPiece.getTeamColor();
+            //throw error if any of these happen:
+            if (moveColor != teamTurn) {
+                throw new InvalidMoveException("It is not that team's turn");
+            }
 
-        //throw error if any of these happen:
-        if (moveColor != getTeamTurn()) {
-            throw new InvalidMoveException("It is not that team's turn");
-        }
+            MoveList availableMoves = new MoveList();
+            long startSquare = Bitboards.bit(Bitboards.square(move.getStartPosition()));
+            MoveGenerator.generateLegalMoves(gameBoard, moveColor, state, startSquare, availableMoves);
 
-        Collection<ChessMove> availableMoves = validMoves(startPos);
-        if (!availableMoves.contains(move)) {
+            for (int i = 0; i < availableMoves.size(); i++) {
+                if (PackedMove.matches(availableMoves.get(i), move)) {
+                    doMove(availableMoves.get(i));
+                    publishPosition();
+                    return;
+                }
+            }
             throw new InvalidMoveException("Invalid Move");
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
 
-        } else {
-
-            if (teamTurn == TeamColor.BLACK) {
-                setTeamTurn(TeamColor.WHITE);
-            } else {
-                setTeamTurn(TeamColor.BLACK);
+    /**
+     * Plays a move without checking that it is legal or that it is the moving
+     * team's turn, and remembers it so it can be taken back with
+     * {@link #undoMove}. Meant for analysis and search, where moves come from
+     * {@link #validMoves} and the board shouldn't be copied for each one.
+     * A king moving two squares sideways from its home square castles if
+     * its own rook stands in that corner, and a pawn moving diagonally onto
+     * an empty square captures en passant if an enemy pawn stands beside it.
+     * Otherwise the piece simply moves, so the board is never left half
+     * changed.
+     *
+     * @param move chess move to perform
+     * @throws InvalidMoveException if there is no piece at the move's start position
+     */
+    public void doMove(ChessMove move) throws InvalidMoveException {
+        checkOnBoard(move);
+        int from = Bitboards.square(move.getStartPosition());
+        int to = Bitboards.square(move.getEndPosition());
+        long stamp = lock.writeLock();
+        try {
+            int movedPiece = gameBoard.pieceIndexAt(from);
+            if (movedPiece < 0) {
+                throw new InvalidMoveException("No piece at start position");
             }
-            gameBoard.addPiece(startPos, null);
 
-            if (promPiece == null) {
-                gameBoard.addPiece(endPos, myPiece);
-            } else {
-                gameBoard.addPiece(endPos, new ChessPiece(moveColor, promPiece));
+            int flags = gameBoard.pieceIndexAt(to) >= 0 ? PackedMove.CAPTURE : PackedMove.QUIET;
+            ChessPiece.PieceType type = Bitboards.typeOf(movedPiece);
+            TeamColor color = Bitboards.colorOf(movedPiece);
+            if (type == ChessPiece.PieceType.KING && isCastle(color, from, to)) {
+                flags = to > from ? PackedMove.KING_CASTLE : PackedMove.QUEEN_CASTLE;
+            } else if (type == ChessPiece.PieceType.PAWN) {
+                TeamColor enemy = color == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+                if (Math.abs(to - from) == 16) {
+                    flags = PackedMove.DOUBLE_PAWN_PUSH;
+                } else if (flags == PackedMove.QUIET && Bitboards.columnOf(from) != Bitboards.columnOf(to)
+                        && gameBoard.pieceIndexAt(enPassantVictim(from, to))
+                        == Bitboards.pieceIndex(enemy, ChessPiece.PieceType.PAWN)) {
+                    flags = PackedMove.EN_PASSANT;
+                }
             }
+            if (move.getPromotionPiece() != null) {
+                flags |= PackedMove.promotionFlag(move.getPromotionPiece());
+            }
+            doMove(PackedMove.encode(from, to, flags));
+            publishPosition();
+        } finally {
+            lock.unlockWrite(stamp);
         }
     }
 
     /**
-     * Determines if the given team is in check
-     *
-     * @param teamColor which team to check for check
-     * @return True if the specified team is in check
+     * @return whether a king move between these squares is a castle the board
+     * can carry out: the king leaves its home square for one two columns along
+     * and a rook of its own color stands in that corner
      */
-    public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition myKingPosition = findKingPosition(teamColor);
-        return isUnderAttack(teamColor, myKingPosition);
+    private boolean isCastle(TeamColor color, int from, int to) {
+        int home = Bitboards.square(color == TeamColor.WHITE ? 1 : 8, 5);
+        if (from != home || Math.abs(to - from) != 2) {
+            return false;
+        }
+        int rookFrom = to > from ? to + 1 : to - 2;
+        return gameBoard.pieceIndexAt(rookFrom) == Bitboards.pieceIndex(color, ChessPiece.PieceType.ROOK);
     }
 
-    private boolean isUnderAttack(TeamColor teamColor, ChessPosition position) {
-        boolean attacked = false;
-
-        for (int i=1; i<9; i++) {
-            for (int j=1; j<9; j++) {
-                ChessPosition potentialEnemyPosition = new ChessPosition(i, j);
-                ChessPiece potentialEnemyPiece = gameBoard.getPiece(potentialEnemyPosition);
+    private static void checkOnBoard(ChessMove move) throws InvalidMoveException {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        if (!Bitboards.isOnBoard(start.getRow(), start.getColumn())
+                || !Bitboards.isOnBoard(end.getRow(), end.getColumn())) {
+            throw new InvalidMoveException("Move goes off the board");
+        }
+    }
 
-                if (potentialEnemyPiece == null) {continue;}
-                if (potentialEnemyPiece.getTeamColor() == teamColor) {continue;}
+    /**
+     * Takes back the most recent move made with {@link #makeMove} or
+     * {@link #doMove}, restoring the board and the team turn
+     *
+     * @return the move that was taken back, or null if there is nothing to undo
+     */
+    public ChessMove undoMove() {
+        long stamp = lock.writeLock();
+        try {
+            if (undoCount == 0) {
+                return null;
+            }
+            long record = undoStack[undoCount - 1];
+            undo();
+            publishPosition();
+            return PackedMove.toChessMove(UndoRecord.move(record));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
 
-                Collection<ChessMove> enemyPieceMoves = potentialEnemyPiece.pieceMoves(gameBoard, potentialEnemyPosition);
+    /**
+     * Plays a move without publishing a new {@link Position} or taking the
+     * lock, for perft and other code that plays moves out and takes them all
+     * back again on a game no other thread can see
+     */
+    void doMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int flags = PackedMove.flags(move);
+        int movedPiece = gameBoard.pieceIndexAt(from);
+        int capturedSquare = flags == PackedMove.EN_PASSANT ? enPassantVictim(from, to) : to;
+        int capturedPiece = gameBoard.pieceIndexAt(capturedSquare);
+
+        if (undoCount == undoStack.length) {
+            undoStack = Arrays.copyOf(undoStack, undoCount * 2);
+            keyHistory = Arrays.copyOf(keyHistory, undoCount * 2);
+        }
+        keyHistory[undoCount] = liveKey();
+        undoStack[undoCount++] = UndoRecord.encode(move, movedPiece, capturedPiece, teamTurn, state);
 
-                for (ChessMove move : enemyPieceMoves) {
-                    if (move.getEndPosition().equals(position)) {
-                        attacked = true;
-                        break;
-                    }
-                }
+        gameBoard.removePiece(from, movedPiece);
+        if (capturedPiece >= 0) {
+            gameBoard.removePiece(capturedSquare, capturedPiece);
+        }
+        gameBoard.setPiece(to, endPiece(move, movedPiece));
+        if (flags == PackedMove.KING_CASTLE || flags == PackedMove.QUEEN_CASTLE) {
+            moveCastlingRook(to, flags, false);
+        }
 
+        boolean pawnMove = Bitboards.typeOf(movedPiece) == ChessPiece.PieceType.PAWN;
+        int halfmoveClock = pawnMove || capturedPiece >= 0 ? 0 : GameState.halfmoveClock(state) + 1;
+        int enPassantColumn = 0;
+        if (flags == PackedMove.DOUBLE_PAWN_PUSH) {
+            //only record en passant when an enemy pawn is there to take it
+            int passed = (from + to) >>> 1;
+            int us = movedPiece / 6;
+            long enemyPawns = gameBoard.bitboards[(us ^ 1) * 6 + ChessPiece.PieceType.PAWN.ordinal()];
+            if ((LeaperAttacks.PAWN[us][passed] & enemyPawns) != 0) {
+                enPassantColumn = Bitboards.columnOf(to);
             }
         }
+        int fullmoveNumber = GameState.fullmoveNumber(state) + (teamTurn == TeamColor.BLACK ? 1 : 0);
+        state = GameState.encode(GameState.castlingAfter(GameState.castling(state), from, to), enPassantColumn,
+                halfmoveClock, fullmoveNumber);
 
-        return attacked;
+        teamTurn = teamTurn == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
     }
 
-    private ChessPosition findKingPosition(TeamColor teamColor) {
-        for (int i=1; i<9; i++) {
-            for (int j=1; j<9; j++) {
-                ChessPosition possiblePosition = new ChessPosition(i, j);
+    void undo() {
+        long record = undoStack[--undoCount];
+        int move = UndoRecord.move(record);
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int flags = PackedMove.flags(move);
+        int movedPiece = UndoRecord.movedPiece(record);
+        int capturedPiece = UndoRecord.capturedPiece(record);
+
+        if (flags == PackedMove.KING_CASTLE || flags == PackedMove.QUEEN_CASTLE) {
+            moveCastlingRook(to, flags, true);
+        }
+        gameBoard.removePiece(to, endPiece(move, movedPiece));
+        if (capturedPiece >= 0) {
+            gameBoard.setPiece(flags == PackedMove.EN_PASSANT ? enPassantVictim(from, to) : to, capturedPiece);
+        }
+        gameBoard.setPiece(from, movedPiece);
 
-                if (gameBoard.getPiece(possiblePosition) == null) {continue;}
-                if (gameBoard.getPiece(possiblePosition).getPieceType() == ChessPiece.PieceType.KING &&
-                        gameBoard.getPiece(possiblePosition).getTeamColor() == teamColor) {
-                    return possiblePosition;
-                }
+        teamTurn = UndoRecord.previousTurn(record);
+        state = UndoRecord.previousState(record);
+    }
 
-            }
+    /**
+     * @return the square of the pawn taken by an en passant capture, which
+     * is beside the capturing pawn's start square, in the column it moves to
+     */
+    private static int enPassantVictim(int from, int to) {
+        return (from & ~7) | (to & 7);
+    }
+
+    /**
+     * Moves the rook that castles with a king landing on kingTo, or moves it
+     * back again when taking the castle back
+     */
+    private void moveCastlingRook(int kingTo, int flags, boolean undo) {
+        int rookFrom = flags == PackedMove.KING_CASTLE ? kingTo + 1 : kingTo - 2;
+        int rookTo = flags == PackedMove.KING_CASTLE ? kingTo - 1 : kingTo + 1;
+        int rook = gameBoard.pieceIndexAt(undo ? rookTo : rookFrom);
+        gameBoard.removePiece(undo ? rookTo : rookFrom, rook);
+        gameBoard.setPiece(undo ? rookFrom : rookTo, rook);
+    }
+
+    /**
+     * @return the index of the piece that ends up on the move's end square
+     */
+    private static int endPiece(int move, int movedPiece) {
+        ChessPiece.PieceType promotion = PackedMove.promotionType(move);
+        if (promotion == null) {
+            return movedPiece;
+        }
+        return Bitboards.pieceIndex(Bitboards.colorOf(movedPiece), promotion);
+    }
+
+    /**
+     * Determines if the given team is in check
+     *
+     * @param teamColor which team to check for check
+     * @return True if the specified team is in check
+     */
+    public boolean isInCheck(TeamColor teamColor) {
+        return read(() -> isInCheck(gameBoard, teamColor));
+    }
+
+    static boolean isInCheck(ChessBoard board, TeamColor teamColor) {
+        ChessPosition myKingPosition = board.getKingPosition(teamColor);
+        if (myKingPosition == null) {
+            return false;
         }
+        return isUnderAttack(board, teamColor, myKingPosition);
+    }
 
-        return null;
+    private static boolean isUnderAttack(ChessBoard board, TeamColor teamColor, ChessPosition position) {
+        TeamColor enemyColor = teamColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+        return board.isSquareAttacked(position, enemyColor);
     }
 
     /**
@@ -188,63 +452,7 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        boolean checkMated = false;
-        if (!canBlockCheck(teamColor) && isInCheck(teamColor)) {
-            checkMated = true;
-        }
-
-        return checkMated;
-    }
-
-    private boolean canBlockCheck(TeamColor teamColor) {
-        //try all possible moves
-        //in each move check if the king is under attack
-        //if not then return true
-        //otherwise return false
-        boolean blockable = false;
-        for (int i=1; i<9; i++) {
-            for (int j = 1; j < 9; j++) {
-                ChessPosition potentialTeammatePosition = new ChessPosition(i, j);
-                ChessPiece potentialTeammatePiece = gameBoard.getPiece(potentialTeammatePosition);
-
-                if (potentialTeammatePiece == null) {continue;}
-                if (potentialTeammatePiece.getTeamColor() != teamColor) {continue;}
-
-                Collection<ChessMove> teamPieceMoves = potentialTeammatePiece.pieceMoves(gameBoard, potentialTeammatePosition);
-
-                for (ChessMove move : teamPieceMoves) {
-                    //set some things in case we gotta undo
-                    ChessPosition originalPosition = move.getStartPosition();
-                    ChessPosition endPosition = move.getEndPosition();
-                    ChessPiece movedPiece = gameBoard.getPiece(originalPosition);
-                    boolean pieceIsTaken = false;
-                    ChessPiece takenPiece = new ChessPiece(teamColor, ChessPiece.PieceType.PAWN); //TEMPORARY, WILL NEVER BE USED
-
-                    if (gameBoard.getPiece(endPosition) != null) {
-                        takenPiece = gameBoard.getPiece(endPosition);
-                        pieceIsTaken = true;
-                    }
-
-                    gameBoard.addPiece(originalPosition, null);
-                    gameBoard.addPiece(endPosition, movedPiece);
-
-                    if (!isInCheck(teamColor)) {
-                        blockable = true;
-                    }
-
-                    //now put everything back
-                    gameBoard.addPiece(originalPosition, movedPiece);
-                    if (pieceIsTaken) {
-                        gameBoard.addPiece(endPosition, takenPiece);
-                    } else {
-                        gameBoard.addPiece(endPosition, null);
-                    }
-
-                }
-            }
-        }
-
-        return blockable;
+        return getStatus(teamColor) == GameStatus.CHECKMATE;
     }
 
     /**
@@ -255,36 +463,248 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        if (isInCheck(teamColor)) {
-            return false;
-        }
+        return getStatus(teamColor) == GameStatus.STALEMATE;
+    }
 
-        for (int i = 1; i < 9; i++) {
-            for (int j = 1; j < 9; j++) {
+    /**
+     * Works out check, checkmate and stalemate together in one pass, stopping
+     * at the first legal move found. The result is remembered until the
+     * position's Zobrist key changes. Concurrent callers may both work the
+     * status out, but each cache entry is replaced as a whole and only after
+     * a read no move ran through, so no caller can pair a status with the
+     * wrong position.
+     * <p>
+     * A game that isn't over by checkmate or stalemate is reported drawn
+     * once neither team has the pieces left to checkmate, once its position
+     * has occurred three times, or once fifty moves by each side have passed
+     * without a capture or pawn move.
+     *
+     * @param teamColor which team to get the status of
+     * @return the team's current status
+     */
+    public GameStatus getStatus(TeamColor teamColor) {
+        int color = teamColor.ordinal();
+        StatusRead result = read(() -> {
+            long key = liveKey();
+            CachedStatus cached = statusCache.get(color);
+            GameStatus boardStatus = cached != null && cached.key() == key ? cached.status()
+                    : computeStatus(gameBoard, GameState.forTeam(state, teamTurn, teamColor), teamColor);
+            //draws depend on the history rather than the position, so they are never cached
+            return new StatusRead(key, boardStatus,
+                    withDraws(boardStatus, countRepetitions(), GameState.halfmoveClock(state)));
+        });
+        //only a read that no move ran through gets here, so the status is safe to keep
+        statusCache.set(color, new CachedStatus(result.key(), result.boardStatus()));
+        return result.status();
+    }
 
-                ChessPosition potentialTeammatePosition = new ChessPosition(i, j);
-                ChessPiece potentialTeammatePiece = gameBoard.getPiece(potentialTeammatePosition);
+    /**
+     * What one consistent read of the game found its status to be, before
+     * and after allowing for draws
+     */
+    private record StatusRead(long key, GameStatus boardStatus, GameStatus status) {
+    }
 
-                if (potentialTeammatePiece == null) {continue;}
-                if (potentialTeammatePiece.getTeamColor() != teamColor) {continue;}
+    static GameStatus withDraws(GameStatus status, int repetitions, int halfmoveClock) {
+        if (status == GameStatus.CHECKMATE || status == GameStatus.STALEMATE) {
+            return status;
+        }
+        if (repetitions >= 3) {
+            return GameStatus.DRAW_BY_REPETITION;
+        }
+        if (halfmoveClock >= 100) {
+            return GameStatus.DRAW_BY_FIFTY_MOVES;
+        }
+        return status;
+    }
 
-                Collection<ChessMove> teamPieceMoves = validMoves(potentialTeammatePosition);
-                if (!teamPieceMoves.isEmpty()) {
-                    return false;
-                }
+    /**
+     * Counts how many times the current position has occurred, including
+     * now. Only positions since the last capture or pawn move can match,
+     * and only those with the same team to move, so this compares one key
+     * for every two moves since then and never compares boards.
+     * Positions from before the last {@link #setBoard} are not known.
+     *
+     * @return 1 the first time a position occurs, 2 the second, and so on
+     */
+    public int getRepetitionCount() {
+        return read(this::countRepetitions);
+    }
+
+    private int countRepetitions() {
+        long key = liveKey();
+        int reversible = Math.min(GameState.halfmoveClock(state), undoCount);
+        int count = 1;
+        for (int back = 2; back <= reversible; back += 2) {
+            if (keyHistory[undoCount - back] == key) {
+                count++;
             }
         }
+        return count;
+    }
 
-        return true;
+    /**
+     * @return the number of moves, counting both teams, since the last
+     * capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return read(() -> GameState.halfmoveClock(state));
+    }
+
+    static GameStatus computeStatus(ChessBoard board, int state, TeamColor teamColor) {
+        boolean inCheck = isInCheck(board, teamColor);
+        boolean canMove = MoveGenerator.hasLegalMove(board, teamColor, state, new MoveList());
+        if (!canMove) {
+            return inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        }
+        if (hasInsufficientMaterial(board)) {
+            return GameStatus.DRAW_BY_INSUFFICIENT_MATERIAL;
+        }
+        return inCheck ? GameStatus.CHECK : GameStatus.ONGOING;
+    }
+
+    /**
+     * Checks whether neither team could ever checkmate, whatever is played:
+     * kings alone, kings and a single bishop or knight, or kings and
+     * bishops that all stand on squares of one color
+     */
+    static boolean hasInsufficientMaterial(ChessBoard board) {
+        long[] bitboards = board.bitboards;
+        long heavy = 0;
+        long knights = 0;
+        long bishops = 0;
+        for (int base = 0; base < Bitboards.PIECE_KINDS; base += 6) {
+            heavy |= bitboards[base + ChessPiece.PieceType.QUEEN.ordinal()]
+                    | bitboards[base + ChessPiece.PieceType.ROOK.ordinal()]
+                    | bitboards[base + ChessPiece.PieceType.PAWN.ordinal()];
+            knights |= bitboards[base + ChessPiece.PieceType.KNIGHT.ordinal()];
+            bishops |= bitboards[base + ChessPiece.PieceType.BISHOP.ordinal()];
+        }
+        if (heavy != 0) {
+            return false;
+        }
+        if (Long.bitCount(knights | bishops) <= 1) {
+            return true;
+        }
+        return knights == 0
+                && ((bishops & Bitboards.LIGHT_SQUARES) == 0 || (bishops & ~Bitboards.LIGHT_SQUARES) == 0);
+    }
+
+    /**
+     * Gets the Zobrist hash of this game's position, covering the pieces,
+     * the team to move, castling rights and any en passant capture.
+     * Positions that compare equal have the same key, so it can stand in for
+     * the game in caches and repetition checks.
+     *
+     * @return 64-bit key identifying the position
+     */
+    public long zobristKey() {
+        return read(this::liveKey);
+    }
+
+    private long liveKey() {
+        return zobristKey(gameBoard, teamTurn, state);
+    }
+
+    static long zobristKey(ChessBoard board, TeamColor teamTurn, int state) {
+        long key = board.zobristKey() ^ Zobrist.stateKey(state);
+        if (teamTurn == TeamColor.BLACK) {
+            key ^= Zobrist.BLACK_TO_MOVE;
+        }
+        return key;
+    }
+
+    /**
+     * @return the packed castling rights, en passant column, halfmove clock
+     * and fullmove number; see {@link GameState}
+     */
+    int state() {
+        return state;
     }
 
     /**
-     * Sets this game's chessboard with a given board
+     * Sets this game's chessboard with a given board. The board carries no
+     * history, so each side may castle with any rook that is still on its
+     * home square next to a king on its own, and there is no en passant
+     * capture available.
      *
      * @param board the new board to use
      */
     public void setBoard(ChessBoard board) {
-        gameBoard = board;
+        long stamp = lock.writeLock();
+        try {
+            gameBoard = board;
+            state = GameState.encode(GameState.inferCastling(board), 0, 0);
+            undoCount = 0;
+            publishPosition();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Gets an immutable snapshot of the board and turn as they were after
+     * the last completed move. It is safe to call from any thread, even
+     * while another thread is making a move, and never blocks.
+     * <p>
+     * Changes made directly to the board returned by {@link #getBoard()}
+     * show up once the game is next changed through its own methods.
+     *
+     * @return the current position
+     */
+    public Position getPosition() {
+        //copies publish lazily, and games built by Gson set their board without going through setBoard
+        Position current = position;
+        if (current == null || positionBoard != gameBoard) {
+            long stamp = lock.writeLock();
+            try {
+                if (position == null || positionBoard != gameBoard) {
+                    publishPosition();
+                }
+                current = position;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        return current;
+    }
+
+    private void publishPosition() {
+        positionBoard = gameBoard;
+        position = new Position(teamTurn, gameBoard, state, countRepetitions(), ++version);
+    }
+
+    /**
+     * Runs a query against the live game without blocking, and runs it again
+     * under the read lock if a change ran while it was reading. A query that
+     * read a half-made move may have thrown, so its exception only counts
+     * once the stamp shows the read was clean.
+     */
+    private <T> T read(Query<T> query) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = query.run();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return query.run();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Query<T> {
+        T run();
     }
 
     /**
@@ -302,11 +722,12 @@ public class ChessGame {
             return false;
         }
         ChessGame chessGame = (ChessGame) o;
-        return teamTurn == chessGame.teamTurn && Objects.equals(gameBoard, chessGame.gameBoard);
+        return teamTurn == chessGame.teamTurn && Objects.equals(gameBoard, chessGame.gameBoard)
+                && GameState.withoutClock(state) == GameState.withoutClock(chessGame.state);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(teamTurn, gameBoard);
+        return Long.hashCode(liveKey());
     }
 }
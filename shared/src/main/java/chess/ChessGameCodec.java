@@ -0,0 +1,145 @@
+package chess;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A compact binary form of a game, for storing games where the JSON form
+ * would be too large or too slow to write on every move.
+ * <p>
+ * The layout, in the buffer's byte order, is:
+ * <ul>
+ *     <li>one byte: the format version, currently {@value #VERSION}</li>
+ *     <li>eight bytes: a bitboard of the occupied squares</li>
+ *     <li>one nibble per occupied square, in square order and two to a
+ *     byte with the first square in the low nibble, holding the piece
+ *     index (color * 6 + type)</li>
+ *     <li>one byte: the team to move</li>
+ *     <li>four bytes: the game's state word; see {@link GameState}</li>
+ * </ul>
+ * A full board is 30 bytes. Like the JSON form, the move history is not
+ * stored, so a decoded game starts with nothing to undo.
+ */
+public final class ChessGameCodec {
+
+    public static final byte VERSION = 1;
+
+    /**
+     * The most bytes {@link #encode} writes for any game
+     */
+    public static final int MAX_ENCODED_SIZE = 1 + 8 + 16 + 1 + 4;
+
+    private ChessGameCodec() {
+    }
+
+    /**
+     * @return the game in the binary form, in a new array
+     */
+    public static byte[] encode(ChessGame game) {
+        return encode(game.getPosition());
+    }
+
+    /**
+     * Writes the game at the buffer's position, advancing it past the
+     * bytes written. The game's published {@link Position} is what gets
+     * written, so another thread can keep making moves meanwhile.
+     *
+     * @throws java.nio.BufferOverflowException if the buffer has fewer than
+     *                                          {@link #MAX_ENCODED_SIZE} bytes
+     *                                          left and the game doesn't fit
+     */
+    public static void encode(ChessGame game, ByteBuffer buffer) {
+        encode(game.getPosition(), buffer);
+    }
+
+    /**
+     * @return the snapshot in the binary form, in a new array
+     */
+    public static byte[] encode(Position position) {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_ENCODED_SIZE);
+        encode(position, buffer);
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes the snapshot at the buffer's position, advancing it past the
+     * bytes written
+     *
+     * @throws java.nio.BufferOverflowException if the buffer has fewer than
+     *                                          {@link #MAX_ENCODED_SIZE} bytes
+     *                                          left and the snapshot doesn't fit
+     */
+    public static void encode(Position position, ByteBuffer buffer) {
+        ChessBoard board = position.board();
+        long occupied = board.getOccupancy();
+        buffer.put(VERSION);
+        buffer.putLong(occupied);
+
+        int pending = -1;
+        for (long remaining = occupied; remaining != 0; remaining &= remaining - 1) {
+            int piece = board.pieceIndexAt(Long.numberOfTrailingZeros(remaining));
+            if (pending < 0) {
+                pending = piece;
+            } else {
+                buffer.put((byte) (pending | (piece << 4)));
+                pending = -1;
+            }
+        }
+        if (pending >= 0) {
+            buffer.put((byte) pending);
+        }
+
+        buffer.put((byte) position.getTeamTurn().ordinal());
+        buffer.putInt(position.state());
+    }
+
+    /**
+     * @return the game held in the bytes
+     * @throws IllegalArgumentException if the bytes are not an encoded game
+     */
+    public static ChessGame decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Reads a game at the buffer's position, advancing it past the bytes
+     * read
+     *
+     * @throws IllegalArgumentException          if the bytes are not an
+     *                                           encoded game
+     * @throws java.nio.BufferUnderflowException if the buffer ends too soon
+     */
+    public static ChessGame decode(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported game encoding version " + version);
+        }
+        long occupied = buffer.getLong();
+
+        ChessBoard board = new ChessBoard();
+        int packed = 0;
+        boolean highNibble = false;
+        for (long remaining = occupied; remaining != 0; remaining &= remaining - 1) {
+            int piece;
+            if (highNibble) {
+                piece = packed >>> 4;
+            } else {
+                packed = buffer.get() & 0xFF;
+                piece = packed & 0xF;
+            }
+            highNibble = !highNibble;
+            if (piece >= Bitboards.PIECE_KINDS) {
+                throw new IllegalArgumentException("Invalid piece " + piece + " in encoded game");
+            }
+            board.setPiece(Long.numberOfTrailingZeros(remaining), piece);
+        }
+
+        int turn = buffer.get();
+        if (turn != 0 && turn != 1) {
+            throw new IllegalArgumentException("Invalid team " + turn + " in encoded game");
+        }
+        ChessGame.TeamColor teamTurn = ChessGame.TeamColor.values()[turn];
+        return new ChessGame(teamTurn, board, GameState.checked(buffer.getInt(), board, teamTurn));
+    }
+}
@@ -0,0 +1,302 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * The JSON form of games, boards and moves, as sent between server and
+ * client.
+ * <p>
+ * Rather than letting Gson reflect over each class's fields, hand-written
+ * streaming adapters write a game as its FEN record, a board as its FEN
+ * piece placement, and a move as a long algebraic token such as
+ * {@code "e2e4"} or {@code "e7e8q"}. Each is a single JSON string, so a
+ * game is well under a hundred bytes.
+ * <p>
+ * The adapters still read the object forms plain Gson writes, including
+ * the older board of nested piece arrays, so JSON written before they
+ * were added keeps loading.
+ */
+public final class ChessJson {
+
+    private static final Gson GSON = registerAdapters(new GsonBuilder()).create();
+
+    private ChessJson() {
+    }
+
+    /**
+     * Gets the shared Gson instance with the chess adapters registered.
+     * Gson instances are thread-safe, so callers should use this one rather
+     * than building their own.
+     *
+     * @return the shared instance
+     */
+    public static Gson gson() {
+        return GSON;
+    }
+
+    /**
+     * Registers the chess adapters, for code that needs a Gson with more
+     * settings or adapters of its own
+     *
+     * @param builder the builder to add the adapters to
+     * @return builder, for chaining
+     */
+    public static GsonBuilder registerAdapters(GsonBuilder builder) {
+        return builder
+                .registerTypeAdapter(ChessGame.class, new GameAdapter().nullSafe())
+                .registerTypeAdapter(ChessBoard.class, new BoardAdapter().nullSafe())
+                .registerTypeAdapter(ChessMove.class, new MoveAdapter().nullSafe());
+    }
+
+    /**
+     * Writes a game as its FEN record
+     */
+    private static final class GameAdapter extends TypeAdapter<ChessGame> {
+        private final BoardAdapter boardAdapter = new BoardAdapter();
+
+        @Override
+        public void write(JsonWriter out, ChessGame game) throws IOException {
+            //the snapshot, so a game can be sent while another thread moves
+            out.value(Fen.write(game.getPosition()));
+        }
+
+        @Override
+        public ChessGame read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.STRING) {
+                return parse(in, Fen::parse);
+            }
+
+            //the reflective form: {"teamTurn": ..., "gameBoard": ..., "state": ...}
+            ChessGame.TeamColor turn = ChessGame.TeamColor.WHITE;
+            ChessBoard board = null;
+            Integer state = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "teamTurn" -> turn = ChessGame.TeamColor.valueOf(in.nextString());
+                    case "gameBoard" -> board = boardAdapter.read(in);
+                    case "state" -> state = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+
+            if (board == null) {
+                board = new ChessBoard();
+                board.resetBoard();
+            }
+            if (state == null) {
+                return new ChessGame(turn, board, GameState.encode(GameState.inferCastling(board), 0, 0));
+            }
+            try {
+                return new ChessGame(turn, board, GameState.checked(state, board, turn));
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage() + " in game JSON", e);
+            }
+        }
+    }
+
+    /**
+     * Writes a board as its FEN piece placement
+     */
+    private static final class BoardAdapter extends TypeAdapter<ChessBoard> {
+        @Override
+        public void write(JsonWriter out, ChessBoard board) throws IOException {
+            out.value(Fen.writePlacement(board, new StringBuilder(72)).toString());
+        }
+
+        @Override
+        public ChessBoard read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.STRING) {
+                return parse(in, Fen::parsePlacement);
+            }
+
+            ChessBoard board = new ChessBoard();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "bitboards" -> readBitboards(in, board);
+                    case "board" -> readSquares(in, board);
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return board;
+        }
+
+        /**
+         * Reads the reflective form of the bitboard board. The occupancy
+         * and Zobrist key stored beside the bitboards are rebuilt rather
+         * than trusted.
+         */
+        private static void readBitboards(JsonReader in, ChessBoard board) throws IOException {
+            in.beginArray();
+            for (int piece = 0; in.hasNext(); piece++) {
+                long bitboard = in.nextLong();
+                if (piece >= Bitboards.PIECE_KINDS) {
+                    throw new IOException("Too many bitboards in board JSON");
+                }
+                for (long remaining = bitboard; remaining != 0; remaining &= remaining - 1) {
+                    board.setPiece(Long.numberOfTrailingZeros(remaining), piece);
+                }
+            }
+            in.endArray();
+        }
+
+        /**
+         * Reads the original form of the board: eight rows of eight squares,
+         * each null or a piece with its color and type
+         */
+        private static void readSquares(JsonReader in, ChessBoard board) throws IOException {
+            in.beginArray();
+            for (int row = 1; in.hasNext(); row++) {
+                in.beginArray();
+                for (int col = 1; in.hasNext(); col++) {
+                    if (in.peek() == JsonToken.NULL) {
+                        in.nextNull();
+                        continue;
+                    }
+                    ChessGame.TeamColor color = null;
+                    ChessPiece.PieceType type = null;
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        switch (in.nextName()) {
+                            case "pieceColor" -> color = ChessGame.TeamColor.valueOf(in.nextString());
+                            case "type" -> type = ChessPiece.PieceType.valueOf(in.nextString());
+                            default -> in.skipValue();
+                        }
+                    }
+                    in.endObject();
+                    if (color == null || type == null || !Bitboards.isOnBoard(row, col)) {
+                        throw new IOException("Invalid square at row " + row + ", column " + col + " in board JSON");
+                    }
+                    board.addPiece(ChessPosition.of(row, col), ChessPiece.of(color, type));
+                }
+                in.endArray();
+            }
+            in.endArray();
+        }
+    }
+
+    /**
+     * Writes a move as its start and end squares, plus the promotion piece
+     * if there is one, such as {@code "e7e8q"}
+     */
+    private static final class MoveAdapter extends TypeAdapter<ChessMove> {
+        @Override
+        public void write(JsonWriter out, ChessMove move) throws IOException {
+            StringBuilder token = new StringBuilder(5);
+            appendSquare(token, move.getStartPosition());
+            appendSquare(token, move.getEndPosition());
+            ChessPiece.PieceType promotion = move.getPromotionPiece();
+            if (promotion != null) {
+                token.append(switch (promotion) {
+                    case QUEEN -> 'q';
+                    case ROOK -> 'r';
+                    case BISHOP -> 'b';
+                    case KNIGHT -> 'n';
+                    default -> throw new IllegalArgumentException("Cannot promote to " + promotion);
+                });
+            }
+            out.value(token.toString());
+        }
+
+        @Override
+        public ChessMove read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.STRING) {
+                return parse(in, MoveAdapter::parseToken);
+            }
+
+            //the reflective form: {"startPosition": {"row": 2, "col": 5}, ...}
+            ChessPosition start = null;
+            ChessPosition end = null;
+            ChessPiece.PieceType promotion = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "startPosition" -> start = readPosition(in);
+                    case "endPosition" -> end = readPosition(in);
+                    case "promotionPiece" -> promotion = ChessPiece.PieceType.valueOf(in.nextString());
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            if (start == null || end == null) {
+                throw new IOException("Move JSON is missing a start or end position");
+            }
+            return new ChessMove(start, end, promotion);
+        }
+
+        private static void appendSquare(StringBuilder token, ChessPosition position) {
+            token.append((char) ('a' + position.getColumn() - 1)).append((char) ('0' + position.getRow()));
+        }
+
+        private static ChessMove parseToken(CharSequence token) {
+            if (token.length() != 4 && token.length() != 5) {
+                throw new IllegalArgumentException("Invalid move: " + token);
+            }
+            ChessPosition start = parseSquare(token, 0);
+            ChessPosition end = parseSquare(token, 2);
+            ChessPiece.PieceType promotion = null;
+            if (token.length() == 5) {
+                promotion = switch (token.charAt(4)) {
+                    case 'q' -> ChessPiece.PieceType.QUEEN;
+                    case 'r' -> ChessPiece.PieceType.ROOK;
+                    case 'b' -> ChessPiece.PieceType.BISHOP;
+                    case 'n' -> ChessPiece.PieceType.KNIGHT;
+                    default -> throw new IllegalArgumentException("Invalid promotion in move: " + token);
+                };
+            }
+            return new ChessMove(start, end, promotion);
+        }
+
+        private static ChessPosition parseSquare(CharSequence token, int index) {
+            int col = token.charAt(index) - 'a' + 1;
+            int row = token.charAt(index + 1) - '0';
+            if (!Bitboards.isOnBoard(row, col)) {
+                throw new IllegalArgumentException("Invalid square in move: " + token);
+            }
+            return ChessPosition.of(row, col);
+        }
+
+        private static ChessPosition readPosition(JsonReader in) throws IOException {
+            int row = 0;
+            int col = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "row" -> row = in.nextInt();
+                    case "col" -> col = in.nextInt();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            if (!Bitboards.isOnBoard(row, col)) {
+                throw new IOException("Invalid position in move JSON: row " + row + ", column " + col);
+            }
+            return ChessPosition.of(row, col);
+        }
+    }
+
+    /**
+     * Reads a string value, turning the parser's IllegalArgumentException
+     * into the IOException Gson reports as bad JSON
+     */
+    private static <T> T parse(JsonReader in, Function<CharSequence, T> parser)
+            throws IOException {
+        String text = in.nextString();
+        try {
+            return parser.apply(text);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+}
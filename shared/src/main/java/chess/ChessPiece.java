@@ -11,6 +11,14 @@ import java.util.Objects;
  */
 public class ChessPiece {
 
+    private static final ChessPiece[] PIECES = new ChessPiece[Bitboards.PIECE_KINDS];
+
+    static {
+        for (int i = 0; i < PIECES.length; i++) {
+            PIECES[i] = new ChessPiece(Bitboards.colorOf(i), Bitboards.typeOf(i));
+        }
+    }
+
     private final ChessGame.TeamColor pieceColor;
     private final ChessPiece.PieceType type;
 
@@ -19,6 +27,24 @@ public class ChessPiece {
         this.type = type;
     }
 
+    /**
+     * Gets the shared instance for a piece. Pieces can't change once made and
+     * compare by value, so every board can hold the same twelve objects
+     * instead of allocating its own.
+     *
+     * @return the canonical piece of this color and type
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+        return PIECES[Bitboards.pieceIndex(pieceColor, type)];
+    }
+
+    /**
+     * @return the canonical piece held by the bitboard with this index
+     */
+    static ChessPiece of(int pieceIndex) {
+        return PIECES[pieceIndex];
+    }
+
     /**
      * The various different chess piece options
      */
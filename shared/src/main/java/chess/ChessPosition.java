@@ -10,6 +10,14 @@ import java.util.Objects;
  */
 public class ChessPosition {
 
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < SQUARES.length; square++) {
+            SQUARES[square] = new ChessPosition(Bitboards.rowOf(square), Bitboards.columnOf(square));
+        }
+    }
+
     private final int row;
     private final int col;
 
@@ -18,6 +26,27 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Gets the shared instance for a position, so hot loops don't allocate
+     * a new object for every square they probe
+     *
+     * @return the canonical position for an on-board row and column, or a new
+     * position if the coordinates are off the board
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return SQUARES[Bitboards.square(row, col)];
+    }
+
+    /**
+     * @return the canonical position for a 0-63 bitboard square index
+     */
+    static ChessPosition ofSquare(int square) {
+        return SQUARES[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
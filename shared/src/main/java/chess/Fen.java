@@ -0,0 +1,340 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Reads and writes games in Forsyth-Edwards Notation, the one-line text
+ * form chess software uses to pass positions around, for example
+ * {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1}.
+ * <p>
+ * The parser walks the text once, character by character, placing pieces
+ * straight onto the new board's bitboards, so it never splits the text or
+ * builds intermediate strings. The writer appends to a caller's
+ * {@link StringBuilder}, so a loop writing many positions can reuse one.
+ */
+public final class Fen {
+
+    /**
+     * The standard starting position
+     */
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    /**
+     * The character for each piece index, white pieces in upper case
+     */
+    private static final char[] PIECE_CHARS = {'K', 'Q', 'B', 'N', 'R', 'P', 'k', 'q', 'b', 'n', 'r', 'p'};
+
+    /**
+     * The piece index for each ASCII character, or -1 for characters that
+     * aren't pieces
+     */
+    private static final byte[] PIECE_INDEX = new byte[128];
+
+    static {
+        Arrays.fill(PIECE_INDEX, (byte) -1);
+        for (int i = 0; i < PIECE_CHARS.length; i++) {
+            PIECE_INDEX[PIECE_CHARS[i]] = (byte) i;
+        }
+    }
+
+    private Fen() {
+    }
+
+    /**
+     * Sets up a game from a FEN record. The halfmove clock and fullmove
+     * number may be left off, as they are in EPD records, and default to 0
+     * and 1. Castling rights are only kept for a king and rook that are still
+     * on their home squares, and an en passant square is only kept when a
+     * pawn is there to capture onto it, the same as the game records after a
+     * move.
+     *
+     * @param fen the record to read
+     * @return a new game in that position, with no move history
+     * @throws IllegalArgumentException if the text is not a valid FEN record
+     */
+    public static ChessGame parse(CharSequence fen) {
+        Parser parser = new Parser(fen);
+        ChessBoard board = parser.board();
+        parser.expect(' ');
+        ChessGame.TeamColor turn = parser.turn();
+        parser.expect(' ');
+        int castling = parser.castling() & GameState.inferCastling(board);
+        parser.expect(' ');
+        int enPassantColumn = parser.enPassantColumn(board, turn);
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        if (!parser.atEnd()) {
+            parser.expect(' ');
+            halfmoveClock = parser.number();
+            parser.expect(' ');
+            fullmoveNumber = Math.max(parser.number(), 1);
+        }
+        parser.expectEnd();
+        return new ChessGame(turn, board, GameState.encode(castling, enPassantColumn, halfmoveClock, fullmoveNumber));
+    }
+
+    /**
+     * @return the FEN record of the game's current position
+     */
+    public static String write(ChessGame game) {
+        return write(game.getPosition());
+    }
+
+    /**
+     * Appends the FEN record of the game's current position. The record is
+     * written from the game's published {@link Position}, so it is always a
+     * whole position even while another thread is making a move.
+     *
+     * @param game the game to write
+     * @param out  where to append the record
+     * @return out, for chaining
+     */
+    public static StringBuilder write(ChessGame game, StringBuilder out) {
+        return write(game.getPosition(), out);
+    }
+
+    /**
+     * @return the FEN record of the snapshot
+     */
+    public static String write(Position position) {
+        return write(position, new StringBuilder(90)).toString();
+    }
+
+    /**
+     * Appends the FEN record of a snapshot
+     *
+     * @param position the snapshot to write
+     * @param out      where to append the record
+     * @return out, for chaining
+     */
+    public static StringBuilder write(Position position, StringBuilder out) {
+        ChessBoard board = position.board();
+        ChessGame.TeamColor turn = position.getTeamTurn();
+        int state = position.state();
+
+        writePlacement(board, out);
+        out.append(turn == ChessGame.TeamColor.WHITE ? " w " : " b ");
+
+        int castling = GameState.castling(state);
+        if (castling == 0) {
+            out.append('-');
+        } else {
+            appendIf(out, castling, GameState.WHITE_KINGSIDE, 'K');
+            appendIf(out, castling, GameState.WHITE_QUEENSIDE, 'Q');
+            appendIf(out, castling, GameState.BLACK_KINGSIDE, 'k');
+            appendIf(out, castling, GameState.BLACK_QUEENSIDE, 'q');
+        }
+
+        int enPassantColumn = GameState.enPassantColumn(state);
+        if (enPassantColumn == 0) {
+            out.append(" - ");
+        } else {
+            out.append(' ').append((char) ('a' + enPassantColumn - 1))
+                    .append(turn == ChessGame.TeamColor.WHITE ? '6' : '3').append(' ');
+        }
+
+        return out.append(GameState.halfmoveClock(state)).append(' ')
+                .append(Math.max(GameState.fullmoveNumber(state), 1));
+    }
+
+    /**
+     * Appends just the piece placement field, the part of a record that
+     * describes the board
+     *
+     * @param board the board to write
+     * @param out   where to append the placement
+     * @return out, for chaining
+     */
+    public static StringBuilder writePlacement(ChessBoard board, StringBuilder out) {
+        long occupied = board.getOccupancy();
+        for (int row = 8; row >= 1; row--) {
+            int rowStart = (row - 1) * 8;
+            int rowBits = (int) (occupied >>> rowStart) & 0xFF;
+            int col = 0;
+            //jump from piece to piece, counting the empty squares skipped
+            while (rowBits != 0) {
+                int next = Integer.numberOfTrailingZeros(rowBits);
+                if (next > col) {
+                    out.append((char) ('0' + next - col));
+                }
+                out.append(PIECE_CHARS[board.pieceIndexAt(rowStart + next)]);
+                rowBits &= rowBits - 1;
+                col = next + 1;
+            }
+            if (col < 8) {
+                out.append((char) ('0' + 8 - col));
+            }
+            if (row > 1) {
+                out.append('/');
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Reads a board from just the piece placement field of a record
+     *
+     * @param placement the placement to read, such as
+     *                  {@code rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR}
+     * @return a new board holding those pieces
+     * @throws IllegalArgumentException if the text is not a valid placement
+     */
+    public static ChessBoard parsePlacement(CharSequence placement) {
+        Parser parser = new Parser(placement);
+        ChessBoard board = parser.board();
+        parser.expectEnd();
+        return board;
+    }
+
+    private static void appendIf(StringBuilder out, int castling, int right, char c) {
+        if ((castling & right) != 0) {
+            out.append(c);
+        }
+    }
+
+    /**
+     * A cursor over the record being read, one field at a time
+     */
+    private static final class Parser {
+        private final CharSequence text;
+        private int index;
+
+        Parser(CharSequence text) {
+            this.text = text;
+        }
+
+        ChessBoard board() {
+            ChessBoard board = new ChessBoard();
+            int row = 8;
+            int col = 1;
+            while (true) {
+                char c = next();
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                } else if (c == '/') {
+                    if (col != 9 || row == 1) {
+                        throw error("Row " + row + " does not have eight squares");
+                    }
+                    row--;
+                    col = 1;
+                    continue;
+                } else {
+                    int piece = pieceIndex(c);
+                    if (piece < 0) {
+                        throw error("Unknown piece '" + c + "'");
+                    }
+                    if (col > 8) {
+                        throw error("Row " + row + " has more than eight squares");
+                    }
+                    board.setPiece(Bitboards.square(row, col), piece);
+                    col++;
+                }
+                if (col > 9) {
+                    throw error("Row " + row + " has more than eight squares");
+                }
+                if (row == 1 && col == 9) {
+                    return board;
+                }
+            }
+        }
+
+        ChessGame.TeamColor turn() {
+            return switch (next()) {
+                case 'w' -> ChessGame.TeamColor.WHITE;
+                case 'b' -> ChessGame.TeamColor.BLACK;
+                default -> throw error("Side to move must be 'w' or 'b'");
+            };
+        }
+
+        int castling() {
+            if (peek() == '-') {
+                index++;
+                return 0;
+            }
+            int castling = 0;
+            while (!atEnd() && peek() != ' ') {
+                castling |= switch (next()) {
+                    case 'K' -> GameState.WHITE_KINGSIDE;
+                    case 'Q' -> GameState.WHITE_QUEENSIDE;
+                    case 'k' -> GameState.BLACK_KINGSIDE;
+                    case 'q' -> GameState.BLACK_QUEENSIDE;
+                    default -> throw error("Unknown castling right");
+                };
+            }
+            if (castling == 0) {
+                throw error("Missing castling rights");
+            }
+            return castling;
+        }
+
+        /**
+         * @return the en passant column if the board backs up a capture onto
+         * the square, or 0; see {@link GameState#canCaptureEnPassant}
+         */
+        int enPassantColumn(ChessBoard board, ChessGame.TeamColor turn) {
+            char file = next();
+            if (file == '-') {
+                return 0;
+            }
+            char rank = next();
+            char expectedRank = turn == ChessGame.TeamColor.WHITE ? '6' : '3';
+            if (file < 'a' || file > 'h' || rank != expectedRank) {
+                throw error("Invalid en passant square");
+            }
+            int column = file - 'a' + 1;
+            return GameState.canCaptureEnPassant(board, turn, column) ? column : 0;
+        }
+
+        int number() {
+            int start = index;
+            int value = 0;
+            while (!atEnd() && peek() >= '0' && peek() <= '9') {
+                value = value * 10 + (next() - '0');
+                if (value > 1_000_000) {
+                    throw error("Move number out of range");
+                }
+            }
+            if (index == start) {
+                throw error("Expected a number");
+            }
+            return value;
+        }
+
+        void expect(char c) {
+            if (next() != c) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        void expectEnd() {
+            if (!atEnd()) {
+                throw error("Unexpected text after the record");
+            }
+        }
+
+        boolean atEnd() {
+            return index >= text.length();
+        }
+
+        private char peek() {
+            if (atEnd()) {
+                throw error("Record ends too soon");
+            }
+            return text.charAt(index);
+        }
+
+        private char next() {
+            char c = peek();
+            index++;
+            return c;
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at index " + index + " of FEN: " + text);
+        }
+
+        private static int pieceIndex(char c) {
+            return c < PIECE_INDEX.length ? PIECE_INDEX[c] : -1;
+        }
+    }
+}
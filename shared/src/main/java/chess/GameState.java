@@ -0,0 +1,185 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Packs the parts of a game that the board alone doesn't show into a single
+ * int, so a move saves and restores them with one assignment.
+ * <p>
+ * Bits 0-3 hold the castling rights, one bit per king and side. Bits 4-7
+ * hold the column of a pawn that can be captured en passant, plus one
+ * (zero when there is none). Bits 8-17 hold the halfmove clock, the number
+ * of moves since the last capture or pawn move. Bits 18-31 hold the
+ * fullmove number, which starts at 1 and goes up after each black move.
+ */
+final class GameState {
+
+    static final int WHITE_KINGSIDE = 1;
+    static final int WHITE_QUEENSIDE = 2;
+    static final int BLACK_KINGSIDE = 4;
+    static final int BLACK_QUEENSIDE = 8;
+    static final int ALL_CASTLING = 15;
+
+    static final int MAX_HALFMOVE_CLOCK = 1023;
+    static final int MAX_FULLMOVE_NUMBER = 16383;
+
+    private static final int EN_PASSANT_MASK = 0xF0;
+
+    /**
+     * The castling rights that survive a move starting or ending on each
+     * square. Moving the king or a rook off its home square, or capturing a
+     * rook on its home square, clears the matching rights.
+     */
+    private static final int[] CASTLING_KEPT = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_KEPT, ALL_CASTLING);
+        CASTLING_KEPT[Bitboards.square(1, 5)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_KEPT[Bitboards.square(1, 8)] &= ~WHITE_KINGSIDE;
+        CASTLING_KEPT[Bitboards.square(1, 1)] &= ~WHITE_QUEENSIDE;
+        CASTLING_KEPT[Bitboards.square(8, 5)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_KEPT[Bitboards.square(8, 8)] &= ~BLACK_KINGSIDE;
+        CASTLING_KEPT[Bitboards.square(8, 1)] &= ~BLACK_QUEENSIDE;
+    }
+
+    private GameState() {
+    }
+
+    /**
+     * @param enPassantColumn the 1-8 column of a pawn that can be captured en
+     *                        passant, or 0 if there is none
+     */
+    static int encode(int castling, int enPassantColumn, int halfmoveClock) {
+        return encode(castling, enPassantColumn, halfmoveClock, 1);
+    }
+
+    static int encode(int castling, int enPassantColumn, int halfmoveClock, int fullmoveNumber) {
+        return castling | (enPassantColumn << 4) | (Math.min(halfmoveClock, MAX_HALFMOVE_CLOCK) << 8)
+                | (Math.min(fullmoveNumber, MAX_FULLMOVE_NUMBER) << 18);
+    }
+
+    static int castling(int state) {
+        return state & ALL_CASTLING;
+    }
+
+    /**
+     * @return the 1-8 column of a pawn that can be captured en passant, or 0
+     * if there is none
+     */
+    static int enPassantColumn(int state) {
+        return (state & EN_PASSANT_MASK) >>> 4;
+    }
+
+    static int halfmoveClock(int state) {
+        return (state >>> 8) & MAX_HALFMOVE_CLOCK;
+    }
+
+    static int fullmoveNumber(int state) {
+        return state >>> 18;
+    }
+
+    /**
+     * @return the square a pawn of the team to move would capture onto en
+     * passant, or -1 if there is none
+     */
+    static int enPassantSquare(int state, int sideToMove) {
+        int column = enPassantColumn(state);
+        if (column == 0) {
+            return -1;
+        }
+        return Bitboards.square(sideToMove == ChessGame.TeamColor.WHITE.ordinal() ? 6 : 3, column);
+    }
+
+    /**
+     * @return whether the board backs up an en passant capture up the given
+     * column: an enemy pawn stands where a two-square move would have left
+     * it, the squares it passed over and came from are empty, and a pawn of
+     * the team to move stands beside it
+     */
+    static boolean canCaptureEnPassant(ChessBoard board, ChessGame.TeamColor turn, int column) {
+        boolean white = turn == ChessGame.TeamColor.WHITE;
+        int passed = Bitboards.square(white ? 6 : 3, column);
+        int victim = Bitboards.square(white ? 5 : 4, column);
+        int origin = Bitboards.square(white ? 7 : 2, column);
+        int mover = turn.ordinal() ^ 1;
+        long victims = board.bitboards[mover * 6 + ChessPiece.PieceType.PAWN.ordinal()];
+        if ((victims & Bitboards.bit(victim)) == 0
+                || (board.getOccupancy() & (Bitboards.bit(passed) | Bitboards.bit(origin))) != 0) {
+            return false;
+        }
+        long capturers = board.bitboards[turn.ordinal() * 6 + ChessPiece.PieceType.PAWN.ordinal()];
+        return (LeaperAttacks.PAWN[mover][passed] & capturers) != 0;
+    }
+
+    /**
+     * Checks a state word read from outside against the board it goes with,
+     * as reading a FEN record does
+     *
+     * @return the state word with any castling rights or en passant capture
+     * the board can't back up removed
+     * @throws IllegalArgumentException if the en passant column is off the
+     *                                  board
+     */
+    static int checked(int state, ChessBoard board, ChessGame.TeamColor turn) {
+        int column = enPassantColumn(state);
+        if (column > 8) {
+            throw new IllegalArgumentException("Invalid en passant column " + column);
+        }
+        if (column != 0 && !canCaptureEnPassant(board, turn, column)) {
+            state = withoutEnPassant(state);
+        }
+        return (state & ~ALL_CASTLING) | (castling(state) & inferCastling(board));
+    }
+
+    /**
+     * En passant is only possible for the team whose turn it is, so asking
+     * about the other team's moves uses the state without it
+     */
+    static int forTeam(int state, ChessGame.TeamColor teamTurn, ChessGame.TeamColor color) {
+        return color == teamTurn ? state : state & ~EN_PASSANT_MASK;
+    }
+
+    static int withoutEnPassant(int state) {
+        return state & ~EN_PASSANT_MASK;
+    }
+
+    /**
+     * @return the castling and en passant bits, which together with the
+     * board and turn decide what moves are possible
+     */
+    static int withoutClock(int state) {
+        return state & (ALL_CASTLING | EN_PASSANT_MASK);
+    }
+
+    /**
+     * @return the castling rights left after a move between these squares
+     */
+    static int castlingAfter(int castling, int from, int to) {
+        return castling & CASTLING_KEPT[from] & CASTLING_KEPT[to];
+    }
+
+    /**
+     * Works out castling rights for a board set up from scratch, where the
+     * history is unknown: a side keeps a right while its king and that
+     * rook are both still on their home squares
+     */
+    static int inferCastling(ChessBoard board) {
+        int castling = 0;
+        for (int color = 0; color < 2; color++) {
+            int row = color == 0 ? 1 : 8;
+            int base = color * 6;
+            long king = board.bitboards[base + ChessPiece.PieceType.KING.ordinal()];
+            long rooks = board.bitboards[base + ChessPiece.PieceType.ROOK.ordinal()];
+            if ((king & Bitboards.bit(Bitboards.square(row, 5))) == 0) {
+                continue;
+            }
+            if ((rooks & Bitboards.bit(Bitboards.square(row, 8))) != 0) {
+                castling |= color == 0 ? WHITE_KINGSIDE : BLACK_KINGSIDE;
+            }
+            if ((rooks & Bitboards.bit(Bitboards.square(row, 1))) != 0) {
+                castling |= color == 0 ? WHITE_QUEENSIDE : BLACK_QUEENSIDE;
+            }
+        }
+        return castling;
+    }
+}
@@ -0,0 +1,42 @@
+package chess;
+
+/**
+ * Precomputed attack sets for the pieces that jump rather than slide.
+ * <p>
+ * Each table has one bitboard per square, already clipped to the board, so
+ * looking up a knight, king or pawn attack needs no bounds checks.
+ */
+final class LeaperAttacks {
+
+    private static final int[][] KNIGHT_OFFSETS = {{1, 2}, {2, 1}, {-1, 2}, {-2, 1}, {1, -2}, {2, -1}, {-1, -2}, {-2, -1}};
+    private static final int[][] KING_OFFSETS = {{1, -1}, {1, 0}, {1, 1}, {0, -1}, {0, 1}, {-1, -1}, {-1, 0}, {-1, 1}};
+    private static final int[][] WHITE_PAWN_OFFSETS = {{1, -1}, {1, 1}};
+    private static final int[][] BLACK_PAWN_OFFSETS = {{-1, -1}, {-1, 1}};
+
+    static final long[] KNIGHT = buildTable(KNIGHT_OFFSETS);
+    static final long[] KING = buildTable(KING_OFFSETS);
+
+    /**
+     * Squares a pawn of each color captures on, indexed by color ordinal then square
+     */
+    static final long[][] PAWN = {buildTable(WHITE_PAWN_OFFSETS), buildTable(BLACK_PAWN_OFFSETS)};
+
+    private LeaperAttacks() {
+    }
+
+    private static long[] buildTable(int[][] offsets) {
+        long[] table = new long[64];
+        for (int square = 0; square < 64; square++) {
+            int row = Bitboards.rowOf(square);
+            int col = Bitboards.columnOf(square);
+            for (int[] offset : offsets) {
+                int targetRow = row + offset[0];
+                int targetCol = col + offset[1];
+                if (Bitboards.isOnBoard(targetRow, targetCol)) {
+                    table[square] |= Bitboards.bit(Bitboards.square(targetRow, targetCol));
+                }
+            }
+        }
+        return table;
+    }
+}
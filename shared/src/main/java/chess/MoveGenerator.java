@@ -0,0 +1,212 @@
+package chess;
+
+/**
+ * Generates strictly legal moves.
+ * <p>
+ * Instead of trying each move and testing for check afterwards, the
+ * generator works out once per position which enemy pieces give check and
+ * which friendly pieces are pinned to their king. Every piece is then only
+ * offered the end squares that keep the king safe:
+ * <ul>
+ *     <li>In double check only the king may move</li>
+ *     <li>In single check other pieces must capture the checker or block
+ *     its ray</li>
+ *     <li>A pinned piece may only move along the line through its king and
+ *     the pinning piece</li>
+ *     <li>The king may only step to squares that stay unattacked once the
+ *     king has left its current square</li>
+ * </ul>
+ * Castling and en passant depend on the game's {@link GameState state word}
+ * as well as the board. Castling is only offered out of check, across
+ * empty, unattacked squares, and en passant is checked by casting the
+ * enemy's slider rays through the board as it would be after the capture,
+ * since it takes two pieces off one row at once.
+ */
+final class MoveGenerator {
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Appends every legal move of a team's pieces standing on a square in fromMask
+     *
+     * @param state the game state word as seen by this team, with en passant
+     *              cleared unless it is the team to move
+     */
+    static void generateLegalMoves(ChessBoard board, ChessGame.TeamColor color, int state, long fromMask,
+                                   MoveList moves) {
+        generate(board, color.ordinal(), state, fromMask, moves, false);
+    }
+
+    /**
+     * @return True if the team has at least one legal move, stopping at the first one found
+     */
+    static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor color, int state, MoveList scratch) {
+        scratch.clear();
+        return generate(board, color.ordinal(), state, -1L, scratch, true);
+    }
+
+    private static boolean generate(ChessBoard board, int us, int state, long fromMask, MoveList moves,
+                                    boolean stopAtFirst) {
+        int them = us ^ 1;
+        long pieces = board.colorOccupancy[us] & fromMask;
+        int king = board.kingSquare(us);
+        long checkMask = -1L;
+        long pinned = 0;
+
+        if (king >= 0) {
+            long occupancy = board.getOccupancy();
+            long checkers = board.attackersOf(king, them, occupancy);
+
+            if ((pieces & Bitboards.bit(king)) != 0) {
+                addKingMoves(board, king, us, occupancy, moves);
+                if (checkers == 0 && GameState.castling(state) != 0) {
+                    addCastlingMoves(board, king, us, GameState.castling(state), occupancy, moves);
+                }
+                pieces &= ~Bitboards.bit(king);
+                if (stopAtFirst && !moves.isEmpty()) {
+                    return true;
+                }
+            }
+
+            if (Long.bitCount(checkers) > 1) {
+                return !moves.isEmpty();
+            }
+            if (checkers != 0) {
+                checkMask = checkers | SlidingAttacks.between(king, Long.numberOfTrailingZeros(checkers));
+            }
+            pinned = pinnedPieces(board, us, king);
+        }
+        //without a king nothing can be left in check, so every move is legal
+
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+
+            long targetMask = checkMask;
+            if ((pinned & Bitboards.bit(from)) != 0) {
+                targetMask &= SlidingAttacks.line(king, from);
+            }
+            if (targetMask != 0) {
+                PieceMovesCalculator.generateMoves(board, from, targetMask, moves);
+                if (stopAtFirst && !moves.isEmpty()) {
+                    return true;
+                }
+            }
+        }
+
+        int enPassantSquare = GameState.enPassantSquare(state, us);
+        if (enPassantSquare >= 0) {
+            addEnPassantMoves(board, us, king, enPassantSquare, fromMask, moves);
+        }
+        return !moves.isEmpty();
+    }
+
+    private static void addKingMoves(ChessBoard board, int king, int us, long occupancy, MoveList moves) {
+        //the king must not be able to hide behind itself from a slider
+        int them = us ^ 1;
+        long withoutKing = occupancy & ~Bitboards.bit(king);
+        long safe = 0;
+        long targets = LeaperAttacks.KING[king] & ~board.colorOccupancy[us];
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (!board.isSquareAttacked(to, them, withoutKing)) {
+                safe |= Bitboards.bit(to);
+            }
+        }
+        if (safe != 0) {
+            PieceMovesCalculator.generateMoves(board, king, safe, moves);
+        }
+    }
+
+    /**
+     * Adds castling moves for each side the team still has the right to
+     * castle on. The king and rook must still be on their home squares, the
+     * squares between them empty, and the squares the king crosses and lands
+     * on unattacked. The caller has already made sure the king isn't in check.
+     */
+    private static void addCastlingMoves(ChessBoard board, int king, int us, int castling, long occupancy,
+                                         MoveList moves) {
+        int home = us == ChessGame.TeamColor.WHITE.ordinal() ? Bitboards.square(1, 5) : Bitboards.square(8, 5);
+        if (king != home) {
+            return;
+        }
+        int them = us ^ 1;
+        long rooks = board.bitboards[us * 6 + ChessPiece.PieceType.ROOK.ordinal()];
+        int kingside = us == ChessGame.TeamColor.WHITE.ordinal() ? GameState.WHITE_KINGSIDE : GameState.BLACK_KINGSIDE;
+        int queenside = us == ChessGame.TeamColor.WHITE.ordinal() ? GameState.WHITE_QUEENSIDE : GameState.BLACK_QUEENSIDE;
+
+        if ((castling & kingside) != 0 && (rooks & Bitboards.bit(home + 3)) != 0
+                && (occupancy & (Bitboards.bit(home + 1) | Bitboards.bit(home + 2))) == 0
+                && !board.isSquareAttacked(home + 1, them, occupancy)
+                && !board.isSquareAttacked(home + 2, them, occupancy)) {
+            moves.add(PackedMove.encode(home, home + 2, PackedMove.KING_CASTLE));
+        }
+        if ((castling & queenside) != 0 && (rooks & Bitboards.bit(home - 4)) != 0
+                && (occupancy & (Bitboards.bit(home - 1) | Bitboards.bit(home - 2) | Bitboards.bit(home - 3))) == 0
+                && !board.isSquareAttacked(home - 1, them, occupancy)
+                && !board.isSquareAttacked(home - 2, them, occupancy)) {
+            moves.add(PackedMove.encode(home, home - 2, PackedMove.QUEEN_CASTLE));
+        }
+    }
+
+    /**
+     * Adds en passant captures onto the target square. Each is played out on
+     * the occupancy alone: the capturing pawn moves and the captured pawn
+     * disappears, and the capture is legal if nothing but that pawn would
+     * then attack the king. This covers pins along the row the two pawns
+     * shared, which the pin mask can't see.
+     */
+    private static void addEnPassantMoves(ChessBoard board, int us, int king, int target, long fromMask,
+                                          MoveList moves) {
+        int them = us ^ 1;
+        int captured = us == ChessGame.TeamColor.WHITE.ordinal() ? target - 8 : target + 8;
+        long capturedBit = Bitboards.bit(captured);
+        //a state word that came from outside may name a capture the board can't back up
+        if ((board.bitboards[them * 6 + ChessPiece.PieceType.PAWN.ordinal()] & capturedBit) == 0
+                || (board.getOccupancy() & Bitboards.bit(target)) != 0) {
+            return;
+        }
+        long pawns = board.bitboards[us * 6 + ChessPiece.PieceType.PAWN.ordinal()];
+        long capturers = LeaperAttacks.PAWN[them][target] & pawns & fromMask;
+        while (capturers != 0) {
+            int from = Long.numberOfTrailingZeros(capturers);
+            capturers &= capturers - 1;
+            if (king >= 0) {
+                long after = (board.getOccupancy() ^ Bitboards.bit(from) ^ capturedBit) | Bitboards.bit(target);
+                if ((board.attackersOf(king, them, after) & ~capturedBit) != 0) {
+                    continue;
+                }
+            }
+            moves.add(PackedMove.encode(from, target, PackedMove.EN_PASSANT));
+        }
+    }
+
+    /**
+     * @return bitboard of friendly pieces that are the only piece between
+     * their king and an enemy slider aimed at it
+     */
+    private static long pinnedPieces(ChessBoard board, int us, int king) {
+        int them = us ^ 1;
+        int base = them * 6;
+        long enemy = board.colorOccupancy[them];
+        long queens = board.bitboards[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        long snipers = (SlidingAttacks.rookAttacks(king, enemy)
+                & (board.bitboards[base + ChessPiece.PieceType.ROOK.ordinal()] | queens))
+                | (SlidingAttacks.bishopAttacks(king, enemy)
+                & (board.bitboards[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens));
+
+        long occupancy = board.getOccupancy();
+        long pinned = 0;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = SlidingAttacks.between(king, sniper) & occupancy;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & board.colorOccupancy[us];
+            }
+        }
+        return pinned;
+    }
+}
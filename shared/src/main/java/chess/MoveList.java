@@ -0,0 +1,61 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A growable list of {@link PackedMove packed moves} backed by an int array.
+ * <p>
+ * Generators append to a list in place and callers can {@link #clear} and
+ * reuse it, so generating moves does not allocate once the array has grown
+ * to fit.
+ */
+final class MoveList {
+
+    private int[] moves;
+    private int size;
+
+    MoveList() {
+        this(64);
+    }
+
+    MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    void add(int move) {
+        if (size == moves.length) {
+            int[] grown = new int[size * 2];
+            System.arraycopy(moves, 0, grown, 0, size);
+            moves = grown;
+        }
+        moves[size++] = move;
+    }
+
+    int get(int index) {
+        return moves[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return the moves as {@link ChessMove} objects, for the public API
+     */
+    List<ChessMove> toChessMoves() {
+        List<ChessMove> chessMoves = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            chessMoves.add(PackedMove.toChessMove(moves[i]));
+        }
+        return chessMoves;
+    }
+}
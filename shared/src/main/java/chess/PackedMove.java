@@ -0,0 +1,107 @@
+package chess;
+
+/**
+ * Packs a move into the low 16 bits of an int so move generation can work on
+ * primitives instead of {@link ChessMove} objects.
+ * <p>
+ * Bits 0-5 hold the start square, bits 6-11 the end square and bits 12-15
+ * a flag describing the kind of move. Squares use the {@link Bitboards}
+ * numbering. Flags 8-15 are promotions, with the low two bits naming the
+ * piece and bit 2 marking a capture.
+ */
+final class PackedMove {
+
+    static final int QUIET = 0;
+    static final int DOUBLE_PAWN_PUSH = 1;
+    static final int KING_CASTLE = 2;
+    static final int QUEEN_CASTLE = 3;
+    static final int CAPTURE = 4;
+    static final int EN_PASSANT = 5;
+    static final int PROMOTION = 8;
+    static final int PROMOTION_CAPTURE = 12;
+
+    static final int NONE = 0;
+
+    private static final ChessPiece.PieceType[] PROMOTION_TYPES = {
+            ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.ROOK, ChessPiece.PieceType.QUEEN
+    };
+
+    private PackedMove() {
+    }
+
+    static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    static int from(int move) {
+        return move & 0x3F;
+    }
+
+    static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    static int flags(int move) {
+        return (move >>> 12) & 0xF;
+    }
+
+    static boolean isCapture(int move) {
+        return (flags(move) & CAPTURE) != 0;
+    }
+
+    static boolean isPromotion(int move) {
+        return (flags(move) & PROMOTION) != 0;
+    }
+
+    /**
+     * @return the piece a pawn promotes to, or null if this is not a promotion
+     */
+    static ChessPiece.PieceType promotionType(int move) {
+        return isPromotion(move) ? PROMOTION_TYPES[flags(move) & 3] : null;
+    }
+
+    /**
+     * @return the promotion flag bits (before any capture bit) for a piece type
+     */
+    static int promotionFlag(ChessPiece.PieceType type) {
+        return switch (type) {
+            case KNIGHT -> PROMOTION;
+            case BISHOP -> PROMOTION | 1;
+            case ROOK -> PROMOTION | 2;
+            case QUEEN -> PROMOTION | 3;
+            default -> throw new IllegalArgumentException("Cannot promote to " + type);
+        };
+    }
+
+    /**
+     * @return the move in coordinate notation, such as e2e4 or e7e8q
+     */
+    static String toAlgebraic(int move) {
+        StringBuilder text = new StringBuilder(5);
+        appendSquare(text, from(move));
+        appendSquare(text, to(move));
+        ChessPiece.PieceType promotion = promotionType(move);
+        if (promotion != null) {
+            text.append(promotion == ChessPiece.PieceType.KNIGHT ? 'n' : Character.toLowerCase(promotion.name().charAt(0)));
+        }
+        return text.toString();
+    }
+
+    private static void appendSquare(StringBuilder text, int square) {
+        text.append((char) ('a' + Bitboards.columnOf(square) - 1)).append((char) ('0' + Bitboards.rowOf(square)));
+    }
+
+    static ChessMove toChessMove(int move) {
+        return new ChessMove(ChessPosition.ofSquare(from(move)), ChessPosition.ofSquare(to(move)), promotionType(move));
+    }
+
+    /**
+     * @return True if the packed move has the same squares and promotion as the given move
+     */
+    static boolean matches(int move, ChessMove chessMove) {
+        return from(move) == Bitboards.square(chessMove.getStartPosition())
+                && to(move) == Bitboards.square(chessMove.getEndPosition())
+                && promotionType(move) == chessMove.getPromotionPiece();
+    }
+}
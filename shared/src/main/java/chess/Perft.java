@@ -0,0 +1,307 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth.
+ * <p>
+ * Perft counts are known exactly for many positions, so comparing against
+ * them is the standard correctness check for a move generator, and the
+ * time taken is a direct measure of its throughput. Run as a program to
+ * print a per-move breakdown ("divide") and nodes per second:
+ * <pre>
+ *     java chess.Perft [depth] [reference position name] [threads]
+ *     java chess.Perft suite
+ * </pre>
+ * With more than one thread the count runs in parallel and reuses
+ * transposed subtrees, so the nodes per second it reports is not
+ * comparable with a single-threaded run.
+ */
+public final class Perft {
+
+    private static final int DEFAULT_SPLIT_DEPTH = 2;
+    private static final int DEFAULT_CACHE_MEGABYTES = 64;
+
+    private Perft() {
+    }
+
+    /**
+     * Counts the positions reachable in exactly depth moves from the game's
+     * current position, with the team to move going first. The count plays
+     * moves forward and takes them back on a copy of the game, so other
+     * threads reading the game never see the search.
+     *
+     * @param game the position to count from; it is copied, not played on
+     * @param depth how many moves deep to count
+     * @return number of leaf positions
+     */
+    public static long perft(ChessGame game, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        return count(game.copy(), depth, newMoveLists(depth));
+    }
+
+    /**
+     * Splits a perft count by the first move, the usual way to narrow down
+     * which line a move generator gets wrong
+     *
+     * @param game the position to count from; it is copied, not played on
+     * @param depth how many moves deep to count, including the first move
+     * @return leaf count under each legal first move, in generation order
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        if (depth <= 0) {
+            return counts;
+        }
+
+        ChessGame search = game.copy();
+        MoveList[] moveLists = newMoveLists(depth);
+        MoveList rootMoves = moveLists[depth];
+        MoveGenerator.generateLegalMoves(search.getBoard(), search.getTeamTurn(), search.state(), -1L, rootMoves);
+        for (int i = 0; i < rootMoves.size(); i++) {
+            int move = rootMoves.get(i);
+            search.doMove(move);
+            long nodes = depth == 1 ? 1 : count(search, depth - 1, moveLists);
+            search.undo();
+            counts.put(PackedMove.toChessMove(move), nodes);
+        }
+        return counts;
+    }
+
+    /**
+     * Same count as {@link #perft}, spread over the common fork/join pool.
+     *
+     * @param game the position to count from; it is copied, not played on
+     * @param depth how many moves deep to count
+     * @return number of leaf positions
+     */
+    public static long parallelPerft(ChessGame game, int depth) {
+        return parallelPerft(game, depth, DEFAULT_SPLIT_DEPTH, ForkJoinPool.commonPool(),
+                new PerftCache(DEFAULT_CACHE_MEGABYTES));
+    }
+
+    /**
+     * Counts leaf positions in parallel. Every move in the first splitDepth
+     * plies becomes its own fork/join task playing on its own copy of the
+     * game, and below that each task counts serially. Subtree counts are
+     * shared between tasks through the cache, so a position reached by more
+     * than one move order is only counted once. A cache may be reused
+     * between calls to keep what it has learned.
+     *
+     * @param game the position to count from; it is copied, not played on
+     * @param depth how many moves deep to count
+     * @param splitDepth how many plies from the root are split into tasks;
+     *                   2 gives a few hundred tasks from a typical position
+     * @param pool the pool to run the tasks in
+     * @param cache where subtree counts are shared
+     * @return number of leaf positions
+     */
+    public static long parallelPerft(ChessGame game, int depth, int splitDepth, ForkJoinPool pool, PerftCache cache) {
+        return pool.invoke(new SubtreeTask(game.copy(), depth, Math.max(splitDepth, 1), cache));
+    }
+
+    /**
+     * The parallel form of {@link #divide}, splitting work the same way as
+     * {@link #parallelPerft(ChessGame, int, int, ForkJoinPool, PerftCache)}.
+     * The game is copied, not played on.
+     *
+     * @return leaf count under each legal first move, in generation order
+     */
+    public static Map<ChessMove, Long> parallelDivide(ChessGame game, int depth, int splitDepth, ForkJoinPool pool,
+                                                      PerftCache cache) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        if (depth <= 0) {
+            return counts;
+        }
+
+        ChessGame root = game.copy();
+        MoveList rootMoves = new MoveList();
+        MoveGenerator.generateLegalMoves(root.getBoard(), root.getTeamTurn(), root.state(), -1L, rootMoves);
+        List<SubtreeTask> tasks = new ArrayList<>(rootMoves.size());
+        for (int i = 0; i < rootMoves.size(); i++) {
+            SubtreeTask task = SubtreeTask.after(root, rootMoves.get(i), depth - 1, splitDepth - 1, cache);
+            pool.execute(task);
+            tasks.add(task);
+        }
+        for (int i = 0; i < rootMoves.size(); i++) {
+            counts.put(PackedMove.toChessMove(rootMoves.get(i)), tasks.get(i).join());
+        }
+        return counts;
+    }
+
+    private static long count(ChessGame game, int depth, MoveList[] moveLists) {
+        MoveList moves = moveLists[depth];
+        moves.clear();
+        MoveGenerator.generateLegalMoves(game.getBoard(), game.getTeamTurn(), game.state(), -1L, moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            nodes += count(game, depth - 1, moveLists);
+            game.undo();
+        }
+        return nodes;
+    }
+
+    private static long count(ChessGame game, int depth, MoveList[] moveLists, PerftCache cache) {
+        if (depth < 2) {
+            return depth < 1 ? 1 : count(game, depth, moveLists);
+        }
+        long key = game.zobristKey();
+        long nodes = cache.probe(key, depth);
+        if (nodes >= 0) {
+            return nodes;
+        }
+
+        MoveList moves = moveLists[depth];
+        moves.clear();
+        MoveGenerator.generateLegalMoves(game.getBoard(), game.getTeamTurn(), game.state(), -1L, moves);
+        nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.doMove(moves.get(i));
+            nodes += count(game, depth - 1, moveLists, cache);
+            game.undo();
+        }
+        cache.store(key, depth, nodes);
+        return nodes;
+    }
+
+    /**
+     * Counts one subtree on a game of its own, forking a task per move
+     * until the split depth runs out
+     */
+    private static final class SubtreeTask extends RecursiveTask<Long> {
+
+        private final ChessGame game;
+        private final int depth;
+        private final int splitDepth;
+        private final PerftCache cache;
+
+        SubtreeTask(ChessGame game, int depth, int splitDepth, PerftCache cache) {
+            this.game = game;
+            this.depth = depth;
+            this.splitDepth = splitDepth;
+            this.cache = cache;
+        }
+
+        static SubtreeTask after(ChessGame game, int move, int depth, int splitDepth, PerftCache cache) {
+            ChessGame child = game.copy();
+            child.doMove(move);
+            return new SubtreeTask(child, depth, splitDepth, cache);
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth < 2 || splitDepth <= 0) {
+                return count(game, depth, newMoveLists(Math.max(depth, 0)), cache);
+            }
+            long key = game.zobristKey();
+            long nodes = cache.probe(key, depth);
+            if (nodes >= 0) {
+                return nodes;
+            }
+
+            MoveList moves = new MoveList();
+            MoveGenerator.generateLegalMoves(game.getBoard(), game.getTeamTurn(), game.state(), -1L, moves);
+            List<SubtreeTask> children = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                children.add(after(game, moves.get(i), depth - 1, splitDepth - 1, cache));
+            }
+            invokeAll(children);
+
+            nodes = 0;
+            for (SubtreeTask child : children) {
+                nodes += child.join();
+            }
+            cache.store(key, depth, nodes);
+            return nodes;
+        }
+    }
+
+    private static MoveList[] newMoveLists(int depth) {
+        MoveList[] moveLists = new MoveList[depth + 1];
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+        return moveLists;
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("suite")) {
+            runSuite();
+            return;
+        }
+
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        PerftPositions.Reference reference = args.length > 1 ? PerftPositions.find(args[1]) : PerftPositions.all().get(0);
+        if (reference == null) {
+            System.out.println("Unknown position: " + args[1]);
+            return;
+        }
+
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        ChessGame game = reference.newGame();
+        long start = System.nanoTime();
+        Map<ChessMove, Long> counts;
+        if (threads > 1) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            counts = parallelDivide(game, depth, DEFAULT_SPLIT_DEPTH, pool, new PerftCache(DEFAULT_CACHE_MEGABYTES));
+            pool.shutdown();
+        } else {
+            counts = divide(game, depth);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        long total = 0;
+        for (Map.Entry<ChessMove, Long> entry : counts.entrySet()) {
+            System.out.println(PackedMove.toAlgebraic(encode(entry.getKey())) + ": " + entry.getValue());
+            total += entry.getValue();
+        }
+        System.out.println();
+        System.out.println("Position: " + reference.name() + ", depth " + depth + ", threads " + Math.max(threads, 1));
+        printTotals(total, elapsed);
+    }
+
+    private static void runSuite() {
+        long totalNodes = 0;
+        long totalTime = 0;
+        boolean allPassed = true;
+        for (PerftPositions.Reference reference : PerftPositions.all()) {
+            for (int depth = 1; depth <= reference.maxDepth(); depth++) {
+                ChessGame game = reference.newGame();
+                long start = System.nanoTime();
+                long nodes = perft(game, depth);
+                totalTime += System.nanoTime() - start;
+                totalNodes += nodes;
+
+                boolean passed = nodes == reference.expectedNodes(depth);
+                allPassed &= passed;
+                System.out.printf("%-10s depth %d: %,14d %s%n", reference.name(), depth, nodes,
+                        passed ? "ok" : "EXPECTED " + reference.expectedNodes(depth));
+            }
+        }
+        System.out.println();
+        System.out.println(allPassed ? "All counts match" : "Some counts are wrong");
+        printTotals(totalNodes, totalTime);
+    }
+
+    private static void printTotals(long nodes, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.printf("Nodes: %,d%nTime: %.3f s%nNodes/second: %,.0f%n", nodes, seconds, nodes / Math.max(seconds, 1e-9));
+    }
+
+    private static int encode(ChessMove move) {
+        int flags = move.getPromotionPiece() == null ? PackedMove.QUIET : PackedMove.promotionFlag(move.getPromotionPiece());
+        return PackedMove.encode(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()), flags);
+    }
+}
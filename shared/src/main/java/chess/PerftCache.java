@@ -0,0 +1,71 @@
+package chess;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size hash table of perft subtree counts that many threads can
+ * read and write at once without locking.
+ * <p>
+ * Transpositions are common in perft: the same position is reached by
+ * different move orders, so its subtree only needs counting once. Each
+ * entry is two longs, the count packed with its depth, and that value
+ * XORed with the position's Zobrist key. A reader accepts an entry only if
+ * the two halves XOR back to the key it is looking for, so an entry torn by
+ * two threads writing at the same time is simply treated as a miss. Newer
+ * entries always replace older ones.
+ */
+public final class PerftCache {
+
+    private static final long DEPTH_MIX = 0x9E3779B97F4A7C15L;
+
+    private final AtomicLongArray entries;
+    private final int mask;
+
+    /**
+     * @param sizeInMegabytes roughly how much memory the table may use; it is
+     *                        rounded down to a power of two entries
+     */
+    public PerftCache(int sizeInMegabytes) {
+        if (sizeInMegabytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        long entryCount = Long.highestOneBit(((long) sizeInMegabytes << 20) / 16);
+        entryCount = Math.min(entryCount, 1 << 29);
+        this.entries = new AtomicLongArray((int) entryCount * 2);
+        this.mask = (int) entryCount - 1;
+    }
+
+    /**
+     * Forgets every stored count
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, 0);
+        }
+    }
+
+    /**
+     * @return the stored leaf count for the position at this depth, or -1 if
+     * it isn't in the table
+     */
+    long probe(long key, int depth) {
+        int slot = slot(key, depth);
+        long data = entries.getOpaque(slot + 1);
+        if ((entries.getOpaque(slot) ^ data) != key || (int) (data & 0xFF) != depth) {
+            return -1;
+        }
+        return data >>> 8;
+    }
+
+    void store(long key, int depth, long nodes) {
+        int slot = slot(key, depth);
+        long data = (nodes << 8) | depth;
+        entries.setOpaque(slot, key ^ data);
+        entries.setOpaque(slot + 1, data);
+    }
+
+    private int slot(long key, int depth) {
+        long mixed = key ^ (depth * DEPTH_MIX);
+        return (int) (mixed & mask) << 1;
+    }
+}
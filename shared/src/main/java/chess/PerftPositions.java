@@ -0,0 +1,92 @@
+package chess;
+
+import java.util.List;
+
+/**
+ * Standard perft reference positions with their published FEN records and
+ * node counts.
+ */
+public final class PerftPositions {
+
+    /**
+     * A named starting position and its known perft counts, where
+     * expectedNodes(1) is the number of legal moves
+     */
+    public static final class Reference {
+        private final String name;
+        private final String fen;
+        private final long[] nodes;
+
+        Reference(String name, String fen, long... nodes) {
+            this.name = name;
+            this.fen = fen;
+            this.nodes = nodes;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public int maxDepth() {
+            return nodes.length;
+        }
+
+        public long expectedNodes(int depth) {
+            return nodes[depth - 1];
+        }
+
+        /**
+         * @return the position as published, in FEN
+         */
+        public String fen() {
+            return fen;
+        }
+
+        /**
+         * @return a new game set up at this position
+         */
+        public ChessGame newGame() {
+            return Fen.parse(fen);
+        }
+    }
+
+    private static final List<Reference> REFERENCES = List.of(
+            new Reference("start",
+                    "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                    20, 400, 8_902, 197_281, 4_865_609),
+            new Reference("kiwipete",
+                    "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48, 2_039, 97_862, 4_085_603),
+            new Reference("position3",
+                    "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14, 191, 2_812, 43_238, 674_624),
+            new Reference("position4",
+                    "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6, 264, 9_467, 422_333),
+            new Reference("position5",
+                    "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44, 1_486, 62_379, 2_103_487),
+            new Reference("position6",
+                    "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46, 2_079, 89_890, 3_894_594)
+    );
+
+    private PerftPositions() {
+    }
+
+    public static List<Reference> all() {
+        return REFERENCES;
+    }
+
+    /**
+     * @return the reference position with the given name, or null if there is none
+     */
+    public static Reference find(String name) {
+        for (Reference reference : REFERENCES) {
+            if (reference.name().equals(name)) {
+                return reference;
+            }
+        }
+        return null;
+    }
+}
@@ -1,403 +1,115 @@
 package chess;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 public class PieceMovesCalculator {
 
-    public static Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        ChessPiece piece = board.getPiece(myPosition);
-
-
-        if (piece.getPieceType() == ChessPiece.PieceType.BISHOP) {
-            return bishopMoves(board, myPosition);
-        } else if (piece.getPieceType() == ChessPiece.PieceType.ROOK) {
-            return rookMoves(board, myPosition);
-        } else if (piece.getPieceType() == ChessPiece.PieceType.QUEEN) {
-            return queenMoves(board, myPosition);
-        } else if (piece.getPieceType() == ChessPiece.PieceType.KNIGHT) {
-            return knightMoves(board, myPosition);
-        } else if (piece.getPieceType() == ChessPiece.PieceType.KING) {
-            return kingMoves(board, myPosition);
-        } else if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
-            return pawnMoves(board, myPosition);
-        }
-
-        return List.of();
-    }
-
-    private static Collection<ChessMove> bishopMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> finalMoveList = new ArrayList<>();
-
-        finalMoveList.addAll(diagUpLeftMoves(board, myPosition));
-        finalMoveList.addAll(diagUpRightMoves(board, myPosition));
-        finalMoveList.addAll(diagDownLeftMoves(board, myPosition));
-        finalMoveList.addAll(diagDownRightMoves(board, myPosition));
-
-        return finalMoveList;
-    }
-
-    private static Collection<ChessMove> rookMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> finalMoveList = new ArrayList<>();
-
-        finalMoveList.addAll(upMoves(board, myPosition));
-        finalMoveList.addAll(downMoves(board, myPosition));
-        finalMoveList.addAll(rightMoves(board, myPosition));
-        finalMoveList.addAll(leftMoves(board, myPosition));
-
-        return finalMoveList;
-    }
-
-    private static Collection<ChessMove> queenMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> finalMoveList = new ArrayList<>();
-
-        finalMoveList.addAll(bishopMoves(board, myPosition));
-        finalMoveList.addAll(rookMoves(board, myPosition));
-
-        return finalMoveList;
-    }
-
-    private static Collection<ChessMove> knightMoves(ChessBoard board, ChessPosition myPosition) {
-        int row = myPosition.getRow();
-        int col = myPosition.getColumn();
-
-        Collection<ChessPosition> theoreticalEndPositions = new ArrayList<>(List.of(
-                new ChessPosition(row+1, col+2),
-                new ChessPosition(row+2, col+1),
-                new ChessPosition(row-1, col+2),
-                new ChessPosition(row-2, col+1),
-                new ChessPosition(row+1, col-2),
-                new ChessPosition(row+2, col-1),
-                new ChessPosition(row-1, col-2),
-                new ChessPosition(row-2, col-1)
-                ));
-
-        return addPossibleMoves(board, myPosition, theoreticalEndPositions);
-    }
-
-    private static Collection<ChessMove> kingMoves(ChessBoard board, ChessPosition myPosition) {
-        int row = myPosition.getRow();
-        int col = myPosition.getColumn();
-
-        Collection<ChessPosition> theoreticalEndPositions = new ArrayList<>();
-
-        for (int i = row-1; i <= row+1; i++) {
-            for (int j = col-1; j <= col+1; j++) {
-                if (i == row && j == col) {
-                    continue;
-                }
-                theoreticalEndPositions.add(new ChessPosition(i, j));
-            }
-        }
-
-        return addPossibleMoves(board, myPosition, theoreticalEndPositions);
-    }
-
-    private static Collection<ChessMove> pawnMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> finalMoveList = new ArrayList<>();
-
-        finalMoveList.addAll(pawnForwardMoves(board, myPosition));
-        finalMoveList.addAll(pawnCaptureMoves(board, myPosition));
-
-        return finalMoveList;
-    }
-
-    //Diagonal Move Checkers
-    private static Collection<ChessMove> diagUpLeftMoves(ChessBoard board, ChessPosition myPosition) {
-
-        int testRow = myPosition.getRow() + 1;
-        int testCol = myPosition.getColumn() - 1;
-        Collection<ChessMove> tempMoveList = new ArrayList<>();
-
-        while (testRow <= 8 && testCol >= 1) {
-            ChessPosition testEndPosition = new ChessPosition(testRow, testCol);
-            ChessMove possibleMove = new ChessMove(myPosition, testEndPosition, null);
-
-            if (board.getPiece(testEndPosition) == null) {
-                tempMoveList.add(possibleMove);
-            } else {
-                if (canCapture(board, myPosition, testEndPosition)) {
-                    tempMoveList.add(possibleMove);
-                }
-                break;
-            }
-            testRow++;
-            testCol--;
-        }
-
-        return tempMoveList;
-    }
-    private static Collection<ChessMove> diagUpRightMoves(ChessBoard board, ChessPosition myPosition) {
-        int testRow = myPosition.getRow() + 1;
-        int testCol = myPosition.getColumn() + 1;
-        Collection<ChessMove> tempMoveList = new ArrayList<>();
-
-        while (testRow <= 8 && testCol <= 8) {
-            ChessPosition testEndPosition = new ChessPosition(testRow, testCol);
-            ChessMove possibleMove = new ChessMove(myPosition, testEndPosition, null);
-
-            if (board.getPiece(testEndPosition) == null) {
-                tempMoveList.add(possibleMove);
-            } else {
-                if (canCapture(board, myPosition, testEndPosition)) {
-                    tempMoveList.add(possibleMove);
-                }
-                break;
-            }
-            testRow++;
-            testCol++;
-        }
-
-        return tempMoveList;
-    }
-    private static Collection<ChessMove> diagDownLeftMoves(ChessBoard board, ChessPosition myPosition) {
-        int testRow = myPosition.getRow() - 1;
-        int testCol = myPosition.getColumn() - 1;
-        Collection<ChessMove> tempMoveList = new ArrayList<>();
-
-        while (testRow >= 1 && testCol >= 1) {
-            ChessPosition testEndPosition = new ChessPosition(testRow, testCol);
-            ChessMove possibleMove = new ChessMove(myPosition, testEndPosition, null);
+    private static final int[] PROMOTION_FLAGS = {
+            PackedMove.promotionFlag(ChessPiece.PieceType.QUEEN),
+            PackedMove.promotionFlag(ChessPiece.PieceType.KNIGHT),
+            PackedMove.promotionFlag(ChessPiece.PieceType.ROOK),
+            PackedMove.promotionFlag(ChessPiece.PieceType.BISHOP)
+    };
 
-            if (board.getPiece(testEndPosition) == null) {
-                tempMoveList.add(possibleMove);
-            } else {
-                if (canCapture(board, myPosition, testEndPosition)) {
-                    tempMoveList.add(possibleMove);
-                }
-                break;
-            }
-            testRow--;
-            testCol--;
-        }
-
-        return tempMoveList;
-    }
-    private static Collection<ChessMove> diagDownRightMoves(ChessBoard board, ChessPosition myPosition) {
-        int testRow = myPosition.getRow() - 1;
-        int testCol = myPosition.getColumn() + 1;
-        Collection<ChessMove> tempMoveList = new ArrayList<>();
-
-        while (testRow >= 1 && testCol <= 8) {
-            ChessPosition testEndPosition = new ChessPosition(testRow, testCol);
-            ChessMove possibleMove = new ChessMove(myPosition, testEndPosition, null);
-
-            if (board.getPiece(testEndPosition) == null) {
-                tempMoveList.add(possibleMove);
-            } else {
-                if (canCapture(board, myPosition, testEndPosition)) {
-                    tempMoveList.add(possibleMove);
-                }
-                break;
-            }
-            testRow--;
-            testCol++;
-        }
-
-        return tempMoveList;
-    }
-
-    //Cardinal Move Checkers
-    private static Collection<ChessMove> upMoves(ChessBoard board, ChessPosition myPosition) {
-
-        int testRow = myPosition.getRow() + 1;
-        int testCol = myPosition.getColumn();
-        Collection<ChessMove> tempMoveList = new ArrayList<>();
-
-        while (testRow <= 8) {
-            ChessPosition testEndPosition = new ChessPosition(testRow, testCol);
-            ChessMove possibleMove = new ChessMove(myPosition, testEndPosition, null);
-
-            if (board.getPiece(testEndPosition) == null) {
-                tempMoveList.add(possibleMove);
-            } else {
-                if (canCapture(board, myPosition, testEndPosition)) {
-                    tempMoveList.add(possibleMove);
-                }
-                break;
-            }
-            testRow++;
+    public static Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
+        MoveList moves = new MoveList();
+        generateMoves(board, Bitboards.square(myPosition), moves);
+        return moves.toChessMoves();
+    }
+
+    /**
+     * Appends the moves of every piece of one color, without checking whether
+     * they leave the king in danger
+     */
+    static void generateMoves(ChessBoard board, ChessGame.TeamColor color, MoveList moves) {
+        long pieces = board.getOccupancy(color);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            generateMoves(board, from, moves);
         }
-
-        return tempMoveList;
     }
-    private static Collection<ChessMove> downMoves(ChessBoard board, ChessPosition myPosition) {
-
-        int testRow = myPosition.getRow() - 1;
-        int testCol = myPosition.getColumn();
-        Collection<ChessMove> tempMoveList = new ArrayList<>();
 
-        while (testRow >= 1) {
-            ChessPosition testEndPosition = new ChessPosition(testRow, testCol);
-            ChessMove possibleMove = new ChessMove(myPosition, testEndPosition, null);
-
-            if (board.getPiece(testEndPosition) == null) {
-                tempMoveList.add(possibleMove);
-            } else {
-                if (canCapture(board, myPosition, testEndPosition)) {
-                    tempMoveList.add(possibleMove);
-                }
-                break;
-            }
-            testRow--;
-        }
-
-        return tempMoveList;
+    /**
+     * Appends the moves of the piece on a square, without checking whether
+     * they leave the king in danger
+     */
+    static void generateMoves(ChessBoard board, int from, MoveList moves) {
+        generateMoves(board, from, -1L, moves);
     }
-    private static Collection<ChessMove> leftMoves(ChessBoard board, ChessPosition myPosition) {
-
-        int testRow = myPosition.getRow();
-        int testCol = myPosition.getColumn() - 1;
-        Collection<ChessMove> tempMoveList = new ArrayList<>();
-
-        while (testCol >= 1) {
-            ChessPosition testEndPosition = new ChessPosition(testRow, testCol);
-            ChessMove possibleMove = new ChessMove(myPosition, testEndPosition, null);
 
-            if (board.getPiece(testEndPosition) == null) {
-                tempMoveList.add(possibleMove);
-            } else {
-                if (canCapture(board, myPosition, testEndPosition)) {
-                    tempMoveList.add(possibleMove);
-                }
-                break;
-            }
-            testCol--;
+    /**
+     * Appends the moves of the piece on a square whose end square is in
+     * targetMask, without checking whether they leave the king in danger
+     */
+    static void generateMoves(ChessBoard board, int from, long targetMask, MoveList moves) {
+        int pieceIndex = board.pieceIndexAt(from);
+        if (pieceIndex < 0) {
+            return;
         }
 
-        return tempMoveList;
-    }
-    private static Collection<ChessMove> rightMoves(ChessBoard board, ChessPosition myPosition) {
-
-        int testRow = myPosition.getRow();
-        int testCol = myPosition.getColumn() + 1;
-        Collection<ChessMove> tempMoveList = new ArrayList<>();
-
-        while (testCol <= 8) {
-            ChessPosition testEndPosition = new ChessPosition(testRow, testCol);
-            ChessMove possibleMove = new ChessMove(myPosition, testEndPosition, null);
-
-            if (board.getPiece(testEndPosition) == null) {
-                tempMoveList.add(possibleMove);
-            } else {
-                if (canCapture(board, myPosition, testEndPosition)) {
-                    tempMoveList.add(possibleMove);
-                }
-                break;
-            }
-            testCol++;
+        int color = pieceIndex / 6;
+        long own = board.colorOccupancy[color];
+        long allowed = ~own & targetMask;
+        long enemy = board.colorOccupancy[color ^ 1];
+        long occupancy = own | enemy;
+
+        switch (Bitboards.typeOf(pieceIndex)) {
+            case BISHOP -> addTargetMoves(from, SlidingAttacks.bishopAttacks(from, occupancy) & allowed, enemy, moves);
+            case ROOK -> addTargetMoves(from, SlidingAttacks.rookAttacks(from, occupancy) & allowed, enemy, moves);
+            case QUEEN -> addTargetMoves(from, SlidingAttacks.queenAttacks(from, occupancy) & allowed, enemy, moves);
+            case KNIGHT -> addTargetMoves(from, LeaperAttacks.KNIGHT[from] & allowed, enemy, moves);
+            case KING -> addTargetMoves(from, LeaperAttacks.KING[from] & allowed, enemy, moves);
+            case PAWN -> addPawnMoves(from, color, occupancy, enemy, targetMask, moves);
         }
-
-        return tempMoveList;
     }
 
     //General Helpers
-    private static boolean canCapture(ChessBoard board, ChessPosition myPosition, ChessPosition testEndPosition) {
-        ChessGame.TeamColor myColor = board.getPiece(myPosition).getTeamColor();
-        ChessGame.TeamColor otherColor = board.getPiece(testEndPosition).getTeamColor();
-        return (myColor != otherColor);
-    }
-    private static boolean isInBounds(ChessPosition myPosition) {
-        return (myPosition.getColumn() <= 8 && myPosition.getColumn() >= 1 && myPosition.getRow() <= 8 && myPosition.getRow() >= 1);
-    }
-    private static Collection<ChessMove> addPossibleMoves(ChessBoard board, ChessPosition myPosition, Collection<ChessPosition> endPositions) {
-        Collection<ChessMove> availableMoveList = new ArrayList<>();
-
-        for (ChessPosition endPosition : endPositions) {
-            if (isInBounds(endPosition)) {
-                if (board.getPiece(endPosition) == null) {
-                    availableMoveList.add(new ChessMove(myPosition, endPosition, null));
-                } else {
-                    if (canCapture(board, myPosition, endPosition)) {
-                        availableMoveList.add(new ChessMove(myPosition, endPosition, null));
-                    }
-                }
-            }
+    private static void addTargetMoves(int from, long targets, long enemy, MoveList moves) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int flags = (enemy & Bitboards.bit(to)) != 0 ? PackedMove.CAPTURE : PackedMove.QUIET;
+            moves.add(PackedMove.encode(from, to, flags));
         }
-
-        return availableMoveList;
     }
 
     //Pawn Checkers
-    private static Collection<ChessMove> pawnForwardMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> tempMoveList = new ArrayList<>();
-
-        int row = myPosition.getRow();
-        int col = myPosition.getColumn();
-        if (board.getPiece(myPosition).getTeamColor() == ChessGame.TeamColor.WHITE) {
-            if (board.getPiece(new ChessPosition(row+1, col)) == null) {
-                tempMoveList.addAll(pawnPromotionAdder(board, myPosition, new ChessPosition(row+1, col)));
-
-                //check if it's the first move
-                if (row == 2) {
-                    if (board.getPiece(new ChessPosition(row+2, col)) == null) {
-                        tempMoveList.add(new ChessMove(myPosition, new ChessPosition(row+2, col), null));
-                    }
-                }
+    private static void addPawnMoves(int from, int color, long occupancy, long enemy, long targetMask, MoveList moves) {
+        boolean white = color == ChessGame.TeamColor.WHITE.ordinal();
+        int forward = white ? 8 : -8;
+        int startRow = white ? 2 : 7;
+
+        int single = from + forward;
+        if (single >= 0 && single < 64 && (occupancy & Bitboards.bit(single)) == 0) {
+            if ((targetMask & Bitboards.bit(single)) != 0) {
+                addPawnMove(from, single, PackedMove.QUIET, moves);
             }
-        } else {
-            if (board.getPiece(new ChessPosition(row-1, col)) == null) {
-                tempMoveList.addAll(pawnPromotionAdder(board, myPosition, new ChessPosition(row-1, col)));
 
-                //check if it's the first move
-                if (row == 7) {
-                    if (board.getPiece(new ChessPosition(row-2, col)) == null) {
-                        tempMoveList.add(new ChessMove(myPosition, new ChessPosition(row-2, col), null));
-                    }
-                }
+            //check if it's the first move
+            int twoAhead = single + forward;
+            if (Bitboards.rowOf(from) == startRow && (occupancy & Bitboards.bit(twoAhead)) == 0
+                    && (targetMask & Bitboards.bit(twoAhead)) != 0) {
+                moves.add(PackedMove.encode(from, twoAhead, PackedMove.DOUBLE_PAWN_PUSH));
             }
         }
 
-        return tempMoveList;
-    }
-    private static Collection<ChessMove> pawnCaptureMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> tempMoveList = new ArrayList<>();
-        Collection<ChessPosition> possibleCapturePositions = new ArrayList<>();
-        int row = myPosition.getRow();
-        int col = myPosition.getColumn();
-
-        //sort by team color & add possible moves
-        if (board.getPiece(myPosition).getTeamColor() == ChessGame.TeamColor.WHITE) {
-            possibleCapturePositions.addAll(List.of(
-                    new ChessPosition(row+1, col+1),
-                    new ChessPosition(row+1, col-1)
-                    ));
-        } else if (board.getPiece(myPosition).getTeamColor() == ChessGame.TeamColor.BLACK) {
-            possibleCapturePositions.addAll(List.of(
-                    new ChessPosition(row-1, col+1),
-                    new ChessPosition(row-1, col-1)
-            ));
-        }
-
-        for (ChessPosition endPosition : possibleCapturePositions) {
-            if (endPosition.getColumn() < 1 || endPosition.getColumn() > 8) {
-                continue;
-            }
-            if (board.getPiece(endPosition) == null) {
-                continue;
-            }
-            if (canCapture(board, myPosition, endPosition)) {
-                tempMoveList.addAll(pawnPromotionAdder(board, myPosition, endPosition));
-            }
+        long captures = LeaperAttacks.PAWN[color][from] & enemy & targetMask;
+        while (captures != 0) {
+            int to = Long.numberOfTrailingZeros(captures);
+            captures &= captures - 1;
+            addPawnMove(from, to, PackedMove.CAPTURE, moves);
         }
-
-        return tempMoveList;
     }
-    private static Collection<ChessMove> pawnPromotionAdder(ChessBoard board, ChessPosition myPosition, ChessPosition endPosition) {
-        Collection<ChessMove> tempMoveList = new ArrayList<>();
 
-        if (board.getPiece(myPosition).getTeamColor() == ChessGame.TeamColor.WHITE && endPosition.getRow() == 8
-            || board.getPiece(myPosition).getTeamColor() == ChessGame.TeamColor.BLACK && endPosition.getRow() == 1) {
-            tempMoveList.addAll(List.of(
-                    new ChessMove(myPosition, endPosition, ChessPiece.PieceType.QUEEN),
-                    new ChessMove(myPosition, endPosition, ChessPiece.PieceType.KNIGHT),
-                    new ChessMove(myPosition, endPosition, ChessPiece.PieceType.ROOK),
-                    new ChessMove(myPosition, endPosition, ChessPiece.PieceType.BISHOP)
-                    ));
+    private static void addPawnMove(int from, int to, int flags, MoveList moves) {
+        int toRow = Bitboards.rowOf(to);
+        if (toRow == 8 || toRow == 1) {
+            for (int promotionFlag : PROMOTION_FLAGS) {
+                moves.add(PackedMove.encode(from, to, promotionFlag | flags));
+            }
         } else {
-            tempMoveList.add(new ChessMove(myPosition, endPosition, null));
+            moves.add(PackedMove.encode(from, to, flags));
         }
-        return tempMoveList;
     }
 }
@@ -0,0 +1,159 @@
+package chess;
+
+import java.util.Collection;
+
+/**
+ * An immutable snapshot of a game: where every piece stands and whose turn
+ * it is. (Not to be confused with {@link ChessPosition}, which is a single
+ * square.)
+ * <p>
+ * A {@link ChessGame} publishes a new snapshot at the end of every move, so
+ * threads that only read, such as observers of a game being played, can
+ * take {@link ChessGame#getPosition()} without locking and always see a
+ * board and turn that belong together, even while a move is being made.
+ * A snapshot is a copy of the game's bitboards, so taking one is a few
+ * array copies, and it never changes afterwards.
+ */
+public final class Position {
+
+    private final ChessGame.TeamColor teamTurn;
+    private final ChessBoard board;
+    private final int state;
+    private final int repetitions;
+    private final long version;
+    private final long zobristKey;
+
+    Position(ChessGame.TeamColor teamTurn, ChessBoard source, int state, int repetitions, long version) {
+        this.teamTurn = teamTurn;
+        this.board = source.copy();
+        this.state = state;
+        this.repetitions = repetitions;
+        this.version = version;
+        this.zobristKey = ChessGame.zobristKey(board, teamTurn, state);
+    }
+
+    /**
+     * @return Which team's turn it is
+     */
+    public ChessGame.TeamColor getTeamTurn() {
+        return teamTurn;
+    }
+
+    /**
+     * @return Either the piece at the position, or null if no piece is at
+     * that position
+     */
+    public ChessPiece getPiece(ChessPosition position) {
+        return board.getPiece(position);
+    }
+
+    /**
+     * @return bitboard of the squares holding pieces of the given color and type
+     */
+    public long getBitboard(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return board.getBitboard(color, type);
+    }
+
+    /**
+     * @return bitboard of the squares holding pieces of the given color
+     */
+    public long getOccupancy(ChessGame.TeamColor color) {
+        return board.getOccupancy(color);
+    }
+
+    /**
+     * Gets a board with this snapshot's pieces. The board is a new copy each
+     * time, so changing it does not affect the snapshot.
+     *
+     * @return a new board holding this snapshot's pieces
+     */
+    public ChessBoard getBoard() {
+        return board.copy();
+    }
+
+    /**
+     * Gets which snapshot of its game this is. Each snapshot a game publishes
+     * has a higher version than the one before, so an observer can tell
+     * whether anything has changed by comparing two numbers.
+     *
+     * @return 1 for a game's first snapshot, 2 for its second, and so on
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return the same key {@link ChessGame#zobristKey()} gave when the
+     * snapshot was taken
+     */
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * @return the snapshot's own board, for code in this package that reads
+     * it without taking a copy and never changes it
+     */
+    ChessBoard board() {
+        return board;
+    }
+
+    /**
+     * @return the packed castling rights, en passant column and clocks; see
+     * {@link GameState}
+     */
+    int state() {
+        return state;
+    }
+
+    /**
+     * Same as {@link ChessGame#validMoves}, for this snapshot
+     */
+    public Collection<ChessMove> validMoves(ChessPosition startPosition) {
+        return ChessGame.validMoves(board, teamTurn, state, startPosition);
+    }
+
+    /**
+     * Same as {@link ChessGame#isInCheck}, for this snapshot
+     */
+    public boolean isInCheck(ChessGame.TeamColor teamColor) {
+        return ChessGame.isInCheck(board, teamColor);
+    }
+
+    /**
+     * Same as {@link ChessGame#getStatus}, for this snapshot, including
+     * draws by repetition as counted when it was taken
+     */
+    public ChessGame.GameStatus getStatus(ChessGame.TeamColor teamColor) {
+        ChessGame.GameStatus status = ChessGame.computeStatus(board, GameState.forTeam(state, teamTurn, teamColor),
+                teamColor);
+        return ChessGame.withDraws(status, repetitions, GameState.halfmoveClock(state));
+    }
+
+    /**
+     * @return a new game starting from this snapshot, with no move history
+     */
+    public ChessGame toGame() {
+        return new ChessGame(teamTurn, board.copy(), state);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        Position that = (Position) o;
+        return teamTurn == that.teamTurn && board.equals(that.board)
+                && GameState.withoutClock(state) == GameState.withoutClock(that.state);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(zobristKey);
+    }
+
+    @Override
+    public String toString() {
+        return board + "Turn: " + teamTurn;
+    }
+}
@@ -0,0 +1,255 @@
+package chess;
+
+import java.util.Random;
+
+/**
+ * Magic-bitboard attack tables for bishops, rooks and queens.
+ * <p>
+ * For every square the relevant blockers (the ray squares, minus the board
+ * edge) are multiplied by a magic number whose top bits form a perfect hash
+ * into a precomputed attack table, so a slider's attack set is one multiply,
+ * one shift and one lookup. The magics are searched for once when the class
+ * loads with a seeded xorshift generator, so the tables are identical on
+ * every run. The per-row seeds are ones known to converge quickly.
+ */
+final class SlidingAttacks {
+
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final int[] BISHOP_OFFSETS = new int[64];
+    private static final long[] BISHOP_TABLE;
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final int[] ROOK_OFFSETS = new int[64];
+    private static final long[] ROOK_TABLE;
+
+    private static final long[] ROW_SEEDS = {728, 10316, 55013, 32803, 12281, 15100, 16645, 255};
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    static {
+        BISHOP_TABLE = buildTable(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+        ROOK_TABLE = buildTable(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+        buildLines();
+    }
+
+    private SlidingAttacks() {
+    }
+
+    static long bishopAttacks(int square, long occupancy) {
+        long blockers = occupancy & BISHOP_MASKS[square];
+        return BISHOP_TABLE[BISHOP_OFFSETS[square] + (int) ((blockers * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square])];
+    }
+
+    static long rookAttacks(int square, long occupancy) {
+        long blockers = occupancy & ROOK_MASKS[square];
+        return ROOK_TABLE[ROOK_OFFSETS[square] + (int) ((blockers * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square])];
+    }
+
+    static long queenAttacks(int square, long occupancy) {
+        return bishopAttacks(square, occupancy) | rookAttacks(square, occupancy);
+    }
+
+    /**
+     * @return the squares strictly between two squares on a shared row, column
+     * or diagonal, or 0 if they are not aligned
+     */
+    static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * @return every square of the row, column or diagonal through both
+     * squares, or 0 if they are not aligned
+     */
+    static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    /**
+     * Walks each ray one square at a time, stopping at (and including) the
+     * first occupied square. This is the slow generator the tables are built
+     * from and checked against.
+     */
+    static long referenceBishopAttacks(int square, long occupancy) {
+        return walkRays(square, occupancy, BISHOP_DIRECTIONS);
+    }
+
+    static long referenceRookAttacks(int square, long occupancy) {
+        return walkRays(square, occupancy, ROOK_DIRECTIONS);
+    }
+
+    /**
+     * Compares the magic lookups with the ray walker for every square, using
+     * every blocker subset of each square's mask plus the given number of
+     * random full-board occupancies.
+     *
+     * @return the first square whose tables disagree, or -1 if all agree
+     */
+    static int verify(int randomSamples, long seed) {
+        Random random = new Random(seed);
+        for (int square = 0; square < 64; square++) {
+            if (!verifySubsets(square, BISHOP_MASKS[square], true) || !verifySubsets(square, ROOK_MASKS[square], false)) {
+                return square;
+            }
+            for (int i = 0; i < randomSamples; i++) {
+                long occupancy = random.nextLong() & random.nextLong();
+                if (bishopAttacks(square, occupancy) != referenceBishopAttacks(square, occupancy)
+                        || rookAttacks(square, occupancy) != referenceRookAttacks(square, occupancy)) {
+                    return square;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean verifySubsets(int square, long mask, boolean bishop) {
+        long subset = 0;
+        do {
+            long expected = bishop ? referenceBishopAttacks(square, subset) : referenceRookAttacks(square, subset);
+            long actual = bishop ? bishopAttacks(square, subset) : rookAttacks(square, subset);
+            if (expected != actual) {
+                return false;
+            }
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+        return true;
+    }
+
+    private static long walkRays(int square, long occupancy, int[][] directions) {
+        long attacks = 0;
+        int row = Bitboards.rowOf(square);
+        int col = Bitboards.columnOf(square);
+        for (int[] direction : directions) {
+            int testRow = row + direction[0];
+            int testCol = col + direction[1];
+            while (Bitboards.isOnBoard(testRow, testCol)) {
+                long bit = Bitboards.bit(Bitboards.square(testRow, testCol));
+                attacks |= bit;
+                if ((occupancy & bit) != 0) {
+                    break;
+                }
+                testRow += direction[0];
+                testCol += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * @return the squares whose occupancy can change a slider's attacks,
+     * which is every ray square except the last one before the edge
+     */
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0;
+        int row = Bitboards.rowOf(square);
+        int col = Bitboards.columnOf(square);
+        for (int[] direction : directions) {
+            int testRow = row + direction[0];
+            int testCol = col + direction[1];
+            while (Bitboards.isOnBoard(testRow + direction[0], testCol + direction[1])) {
+                mask |= Bitboards.bit(Bitboards.square(testRow, testCol));
+                testRow += direction[0];
+                testCol += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static void buildLines() {
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                if (from == to) {
+                    continue;
+                }
+                long toBit = Bitboards.bit(to);
+                long ends = Bitboards.bit(from) | toBit;
+                if ((bishopAttacks(from, 0) & toBit) != 0) {
+                    BETWEEN[from][to] = bishopAttacks(from, toBit) & bishopAttacks(to, Bitboards.bit(from));
+                    LINE[from][to] = (bishopAttacks(from, 0) & bishopAttacks(to, 0)) | ends;
+                } else if ((rookAttacks(from, 0) & toBit) != 0) {
+                    BETWEEN[from][to] = rookAttacks(from, toBit) & rookAttacks(to, Bitboards.bit(from));
+                    LINE[from][to] = (rookAttacks(from, 0) & rookAttacks(to, 0)) | ends;
+                }
+            }
+        }
+    }
+
+    private static long[] buildTable(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+        int size = 0;
+        for (int square = 0; square < 64; square++) {
+            masks[square] = relevantMask(square, directions);
+            int bits = Long.bitCount(masks[square]);
+            shifts[square] = 64 - bits;
+            offsets[square] = size;
+            size += 1 << bits;
+        }
+
+        long[] table = new long[size];
+        for (int square = 0; square < 64; square++) {
+            findMagic(square, directions, masks[square], shifts[square], offsets[square], table, magics);
+        }
+        return table;
+    }
+
+    private static void findMagic(int square, int[][] directions, long mask, int shift, int offset, long[] table,
+                                  long[] magics) {
+        int entries = 1 << (64 - shift);
+        long[] blockers = new long[entries];
+        long[] attacks = new long[entries];
+
+        long subset = 0;
+        int count = 0;
+        do {
+            blockers[count] = subset;
+            attacks[count] = walkRays(square, subset, directions);
+            count++;
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+
+        int[] filledBy = new int[entries];
+        long[] seed = {ROW_SEEDS[Bitboards.rowOf(square) - 1]};
+        for (int attempt = 1; ; attempt++) {
+            long magic = nextRandom(seed) & nextRandom(seed) & nextRandom(seed);
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+
+            boolean collided = false;
+            for (int i = 0; i < count && !collided; i++) {
+                int index = (int) ((blockers[i] * magic) >>> shift);
+                if (filledBy[index] != attempt) {
+                    filledBy[index] = attempt;
+                    table[offset + index] = attacks[i];
+                } else if (table[offset + index] != attacks[i]) {
+                    collided = true;
+                }
+            }
+
+            if (!collided) {
+                magics[square] = magic;
+                return;
+            }
+        }
+    }
+
+    /**
+     * xorshift64* step; the state lives in a one-element array so the
+     * search loop can share it.
+     */
+    private static long nextRandom(long[] seed) {
+        long s = seed[0];
+        s ^= s >>> 12;
+        s ^= s << 25;
+        s ^= s >>> 27;
+        seed[0] = s;
+        return s * 2685821657736338717L;
+    }
+}
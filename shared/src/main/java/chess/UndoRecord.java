@@ -0,0 +1,47 @@
+package chess;
+
+/**
+ * Packs everything needed to take back one move into a single long, so a
+ * game's undo history is a plain long array.
+ * <p>
+ * Bits 0-15 hold the {@link PackedMove packed move}, bits 16-19 the index of
+ * the piece that moved, bits 20-24 the index of the captured piece plus one
+ * (zero when nothing was captured), bit 25 the team whose turn it was, and
+ * bits 32-63 the game's state word from before the move.
+ */
+final class UndoRecord {
+
+    private UndoRecord() {
+    }
+
+    static long encode(int move, int movedPiece, int capturedPiece, ChessGame.TeamColor previousTurn, int previousState) {
+        return (move & 0xFFFFL)
+                | ((long) movedPiece << 16)
+                | ((long) (capturedPiece + 1) << 20)
+                | ((long) previousTurn.ordinal() << 25)
+                | ((long) previousState << 32);
+    }
+
+    static int move(long record) {
+        return (int) (record & 0xFFFF);
+    }
+
+    static int movedPiece(long record) {
+        return (int) (record >>> 16) & 0xF;
+    }
+
+    /**
+     * @return the captured piece's bitboard index, or -1 if nothing was captured
+     */
+    static int capturedPiece(long record) {
+        return ((int) (record >>> 20) & 0x1F) - 1;
+    }
+
+    static ChessGame.TeamColor previousTurn(long record) {
+        return ((record >>> 25) & 1) == 0 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+    }
+
+    static int previousState(long record) {
+        return (int) (record >>> 32);
+    }
+}
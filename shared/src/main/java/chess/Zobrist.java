@@ -0,0 +1,70 @@
+package chess;
+
+/**
+ * Random 64-bit keys for Zobrist hashing.
+ * <p>
+ * A position's key is the XOR of the key for every piece on its square,
+ * plus {@link #BLACK_TO_MOVE} when it is black's turn, plus keys for the
+ * castling rights and en passant column in the game's state word. Because
+ * XOR is its own inverse, adding or removing a piece updates the key with
+ * one XOR instead of rehashing the whole board. The keys come from a fixed
+ * seed so they are the same in every run and on every machine.
+ */
+final class Zobrist {
+
+    static final long[][] PIECE_SQUARE = new long[Bitboards.PIECE_KINDS][64];
+    static final long BLACK_TO_MOVE;
+    /**
+     * Indexed by the four castling bits together; no rights hashes to zero
+     */
+    static final long[] CASTLING = new long[16];
+    /**
+     * Indexed by en passant column 1-8; no en passant hashes to zero
+     */
+    static final long[] EN_PASSANT = new long[9];
+
+    static {
+        long[] state = {0x9E3779B97F4A7C15L};
+        for (long[] squares : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                squares[square] = next(state);
+            }
+        }
+        BLACK_TO_MOVE = next(state);
+
+        long[] rightKeys = new long[4];
+        for (int right = 0; right < rightKeys.length; right++) {
+            rightKeys[right] = next(state);
+        }
+        for (int rights = 1; rights < CASTLING.length; rights++) {
+            for (int right = 0; right < rightKeys.length; right++) {
+                if ((rights & (1 << right)) != 0) {
+                    CASTLING[rights] ^= rightKeys[right];
+                }
+            }
+        }
+        for (int column = 1; column < EN_PASSANT.length; column++) {
+            EN_PASSANT[column] = next(state);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * @return the part of a position's key that comes from a game state word
+     */
+    static long stateKey(int gameState) {
+        return CASTLING[GameState.castling(gameState)] ^ EN_PASSANT[GameState.enPassantColumn(gameState)];
+    }
+
+    /**
+     * splitmix64 step, which gives well mixed output even from a simple seed
+     */
+    private static long next(long[] state) {
+        long z = (state[0] += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,45 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BoardBoundsTests {
+
+    @Test
+    @DisplayName("Off Board Reads Rejected")
+    public void offBoardGet() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> board.getPiece(new ChessPosition(9, 1)),
+                "Row 9 should not wrap around to row 1");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> board.getPiece(new ChessPosition(1, 0)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> board.isOccupied(new ChessPosition(0, 1)));
+    }
+
+    @Test
+    @DisplayName("Off Board Writes Leave Board Unchanged")
+    public void offBoardAdd() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard before = board.copy();
+        long key = board.zobristKey();
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> board.addPiece(new ChessPosition(9, 1),
+                ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN)));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> board.addPiece(new ChessPosition(1, 9), null));
+        Assertions.assertEquals(before, board);
+        Assertions.assertEquals(key, board.zobristKey());
+    }
+
+    @Test
+    @DisplayName("Off Board Moves Are Invalid")
+    public void offBoardMove() {
+        ChessGame game = new ChessGame();
+        Assertions.assertThrows(InvalidMoveException.class, () -> game.makeMove(
+                new ChessMove(ChessPosition.of(2, 1), new ChessPosition(0, 1), null)));
+        Assertions.assertThrows(InvalidMoveException.class, () -> game.doMove(
+                new ChessMove(new ChessPosition(10, 1), ChessPosition.of(3, 1), null)));
+        Assertions.assertEquals(new ChessGame(), game);
+    }
+}
@@ -0,0 +1,151 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ChessGameCodecTests {
+
+    @Test
+    @DisplayName("Games Round Trip")
+    public void roundTrip() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        byte[] bytes = ChessGameCodec.encode(game);
+        Assertions.assertEquals(ChessGameCodec.MAX_ENCODED_SIZE, bytes.length, "A full board should use every byte");
+        Assertions.assertEquals(game, ChessGameCodec.decode(bytes));
+
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        game.makeMove(new ChessMove(ChessPosition.of(4, 5), ChessPosition.of(5, 4), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        ChessGame decoded = ChessGameCodec.decode(ChessGameCodec.encode(game));
+        Assertions.assertEquals(game, decoded);
+        Assertions.assertEquals(Fen.write(game), Fen.write(decoded), "Clocks and en passant should be kept");
+
+        for (PerftPositions.Reference reference : PerftPositions.all()) {
+            ChessGame position = reference.newGame();
+            Assertions.assertEquals(reference.fen(), Fen.write(ChessGameCodec.decode(ChessGameCodec.encode(position))),
+                    reference.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Games Share A Buffer")
+    public void sharedBuffer() {
+        ChessGame first = new ChessGame();
+        ChessGame second = PerftPositions.find("position3").newGame();
+        ByteBuffer buffer = ByteBuffer.allocate(2 * ChessGameCodec.MAX_ENCODED_SIZE);
+        ChessGameCodec.encode(first, buffer);
+        ChessGameCodec.encode(second, buffer);
+        buffer.flip();
+
+        Assertions.assertEquals(first, ChessGameCodec.decode(buffer));
+        Assertions.assertEquals(second, ChessGameCodec.decode(buffer));
+        Assertions.assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    @DisplayName("Bad Bytes Rejected")
+    public void badBytes() {
+        byte[] bytes = ChessGameCodec.encode(new ChessGame());
+        bytes[0] = 99;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(bytes));
+
+        byte[] badPiece = ChessGameCodec.encode(new ChessGame());
+        badPiece[9] = (byte) 0xFF;
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(badPiece));
+    }
+
+    @Test
+    @DisplayName("Bad State Rejected")
+    public void badState() {
+        ChessGame game = new ChessGame();
+        int state = game.state();
+
+        byte[] badColumn = encodeWithState(game, state | (15 << 4));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGameCodec.decode(badColumn));
+    }
+
+    @Test
+    @DisplayName("Every Game State Round Trips")
+    public void everyStateRoundTrips() throws InvalidMoveException {
+        //clocks that no game from the start could reach, but a game can still hold
+        ChessGame lateClock = Fen.parse("4k3/8/8/8/8/8/8/4K3 w - - 5 1");
+        Assertions.assertEquals(Fen.write(lateClock), Fen.write(ChessGameCodec.decode(ChessGameCodec.encode(lateClock))));
+
+        ChessGame turnSet = new ChessGame();
+        turnSet.makeMove(new ChessMove(ChessPosition.of(1, 2), ChessPosition.of(3, 3), null));
+        turnSet.setTeamTurn(ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(Fen.write(turnSet), Fen.write(ChessGameCodec.decode(ChessGameCodec.encode(turnSet))));
+    }
+
+    @Test
+    @DisplayName("Impossible En Passant Dropped")
+    public void impossibleEnPassantDropped() {
+        ChessGame game = new ChessGame();
+        ChessGame decoded = ChessGameCodec.decode(encodeWithState(game, game.state() | (5 << 4)));
+
+        Assertions.assertEquals(0, GameState.enPassantColumn(decoded.state()), "No black pawn stands beside e6");
+        Assertions.assertEquals(game, decoded);
+    }
+
+    @Test
+    @DisplayName("Encoding While Moving Gives Whole Games")
+    public void encodeWhileMoving() throws Exception {
+        List<ChessMove> moves = List.of(
+                new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null),
+                new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null),
+                new ChessMove(ChessPosition.of(4, 5), ChessPosition.of(5, 4), null),
+                new ChessMove(ChessPosition.of(8, 4), ChessPosition.of(5, 4), null));
+        ChessGame game = new ChessGame();
+        Set<String> reachable = new HashSet<>();
+        reachable.add(Fen.write(game));
+        for (ChessMove move : moves) {
+            game.makeMove(move);
+            reachable.add(Fen.write(game));
+        }
+        while (game.undoMove() != null) {
+            //back to the start
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        CompletableFuture<String> reader = CompletableFuture.supplyAsync(() -> {
+            ByteBuffer buffer = ByteBuffer.allocate(ChessGameCodec.MAX_ENCODED_SIZE);
+            while (!done.get()) {
+                buffer.clear();
+                ChessGameCodec.encode(game, buffer);
+                String fen = Fen.write(ChessGameCodec.decode(buffer.flip()));
+                if (!reachable.contains(fen)) {
+                    return fen;
+                }
+            }
+            return null;
+        });
+        try {
+            for (int round = 0; round < 2000; round++) {
+                for (ChessMove move : moves) {
+                    game.makeMove(move);
+                }
+                for (int i = 0; i < moves.size(); i++) {
+                    game.undoMove();
+                }
+            }
+        } finally {
+            done.set(true);
+        }
+        Assertions.assertNull(reader.get(), "An encoding held a position the game never reached");
+    }
+
+    private static byte[] encodeWithState(ChessGame game, int state) {
+        byte[] bytes = ChessGameCodec.encode(game);
+        ByteBuffer.wrap(bytes).putInt(bytes.length - Integer.BYTES, state);
+        return bytes;
+    }
+}
@@ -0,0 +1,96 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class ChessJsonTests {
+
+    private final Gson gson = ChessJson.gson();
+
+    @Test
+    @DisplayName("Games Written As FEN")
+    public void gameAsFen() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals("\"" + Fen.START + "\"", gson.toJson(game));
+
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        ChessGame read = gson.fromJson(gson.toJson(game), ChessGame.class);
+        Assertions.assertEquals(game, read);
+        Assertions.assertEquals(game.zobristKey(), read.zobristKey());
+    }
+
+    @Test
+    @DisplayName("Boards And Moves Written As Tokens")
+    public void boardAndMoveTokens() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        Assertions.assertEquals("\"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR\"", gson.toJson(board));
+        Assertions.assertEquals(board, gson.fromJson(gson.toJson(board), ChessBoard.class));
+
+        List<ChessMove> moves = List.of(
+                new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null),
+                new ChessMove(ChessPosition.of(7, 1), ChessPosition.of(8, 1), ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals("[\"e2e4\",\"a7a8n\"]", gson.toJson(moves));
+        for (ChessMove move : moves) {
+            Assertions.assertEquals(move, gson.fromJson(gson.toJson(move), ChessMove.class));
+        }
+    }
+
+    @Test
+    @DisplayName("Reflective JSON Still Read")
+    public void legacyJson() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+        Gson plain = new Gson();
+        Assertions.assertEquals(game, gson.fromJson(plain.toJson(game), ChessGame.class));
+
+        ChessMove move = new ChessMove(ChessPosition.of(7, 3), ChessPosition.of(8, 3), ChessPiece.PieceType.QUEEN);
+        Assertions.assertEquals(move, gson.fromJson(plain.toJson(move), ChessMove.class));
+    }
+
+    @Test
+    @DisplayName("Nested Array Board Still Read")
+    public void squareArrayJson() {
+        StringBuilder rows = new StringBuilder("[");
+        for (int row = 1; row <= 8; row++) {
+            rows.append(row > 1 ? ",[" : "[");
+            for (int col = 1; col <= 8; col++) {
+                rows.append(col > 1 ? "," : "");
+                rows.append(row == 1 && col == 5 ? "{\"pieceColor\":\"WHITE\",\"type\":\"KING\"}"
+                        : row == 8 && col == 5 ? "{\"pieceColor\":\"BLACK\",\"type\":\"KING\"}" : "null");
+            }
+            rows.append(']');
+        }
+        rows.append(']');
+        String json = "{\"teamTurn\":\"BLACK\",\"gameBoard\":{\"board\":" + rows + "}}";
+
+        ChessGame game = gson.fromJson(json, ChessGame.class);
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 0 1", Fen.write(game));
+    }
+
+    @Test
+    @DisplayName("Bad Tokens Rejected")
+    public void badTokens() {
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("\"e2e9\"", ChessMove.class));
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("\"8/8/8\"", ChessBoard.class));
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("\"not a game\"", ChessGame.class));
+    }
+
+    @Test
+    @DisplayName("Reflective State Checked")
+    public void reflectiveState() {
+        Assertions.assertThrows(JsonParseException.class,
+                () -> gson.fromJson("{\"teamTurn\":\"WHITE\",\"state\":255}", ChessGame.class));
+
+        //there is no black pawn on e5 to capture and black has no rooks, so neither survives
+        int state = GameState.encode(GameState.ALL_CASTLING, 5, 0);
+        ChessGame game = gson.fromJson("{\"teamTurn\":\"WHITE\",\"gameBoard\":\"4k3/8/8/8/8/8/8/R3K2R\","
+                + "\"state\":" + state + "}", ChessGame.class);
+        Assertions.assertEquals("4k3/8/8/8/8/8/8/R3K2R w KQ - 0 1", Fen.write(game));
+    }
+}
@@ -0,0 +1,42 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CopyTests {
+
+    @Test
+    @DisplayName("Board Copy Is Independent")
+    public void boardCopyIsIndependent() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard copy = board.copy();
+        Assertions.assertEquals(board, copy);
+        Assertions.assertEquals(board.zobristKey(), copy.zobristKey());
+
+        copy.addPiece(new ChessPosition(2, 5), null);
+        Assertions.assertNotNull(board.getPiece(new ChessPosition(2, 5)), "Changing a copy should not change the original");
+        Assertions.assertNotEquals(board, copy);
+    }
+
+    @Test
+    @DisplayName("Game Copy Is Independent")
+    public void gameCopyIsIndependent() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        ChessGame copy = game.copy();
+        Assertions.assertEquals(game, copy);
+        Assertions.assertEquals(game.getPosition(), copy.getPosition());
+
+        copy.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertNull(game.getBoard().getPiece(new ChessPosition(5, 5)));
+
+        //the history before the copy comes with it
+        copy.undoMove();
+        copy.undoMove();
+        Assertions.assertEquals(new ChessGame(), copy);
+        Assertions.assertNotEquals(new ChessGame(), game);
+    }
+}
@@ -0,0 +1,159 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class FenTests {
+
+    @Test
+    @DisplayName("Start Position Matches New Game")
+    public void startPosition() {
+        ChessGame game = Fen.parse(Fen.START);
+        Assertions.assertEquals(new ChessGame(), game);
+        Assertions.assertEquals(new ChessGame().zobristKey(), game.zobristKey());
+        Assertions.assertEquals(Fen.START, Fen.write(new ChessGame()));
+    }
+
+    @Test
+    @DisplayName("Reference Positions Round Trip")
+    public void referencePositionsRoundTrip() {
+        for (PerftPositions.Reference reference : PerftPositions.all()) {
+            Assertions.assertEquals(reference.fen(), Fen.write(reference.newGame()), reference.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Moves Update Every Field")
+    public void movesUpdateFields() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(4, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        String fen = "rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3";
+        Assertions.assertEquals(fen, Fen.write(game));
+
+        ChessGame parsed = Fen.parse(fen);
+        Assertions.assertEquals(game, parsed);
+        Assertions.assertEquals(game.zobristKey(), parsed.zobristKey());
+        Assertions.assertEquals(game.validMoves(ChessPosition.of(5, 5)), parsed.validMoves(ChessPosition.of(5, 5)),
+                "The en passant capture should survive the round trip");
+
+        game.makeMove(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(2, 5), null));
+        Assertions.assertEquals("rnbqkb1r/ppp1pppp/5n2/3pP3/8/8/PPPPKPPP/RNBQ1BNR b kq - 1 3", Fen.write(game));
+    }
+
+    @Test
+    @DisplayName("Uncapturable En Passant And Missing Clocks")
+    public void lenientFields() {
+        ChessGame game = Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3");
+        Assertions.assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", Fen.write(game),
+                "No black pawn can take on e3, so the square should be dropped");
+    }
+
+    @Test
+    @DisplayName("En Passant Needs A Pawn To Capture")
+    public void enPassantNeedsVictim() {
+        //a knight, not a pawn, stands where black's pawn would have landed
+        String knightFen = "4k3/8/8/3PN3/8/8/8/4K3 w - e6 0 1";
+        ChessGame game = Fen.parse(knightFen);
+        Assertions.assertEquals("4k3/8/8/3PN3/8/8/8/4K3 w - - 0 1", Fen.write(game));
+        Assertions.assertEquals(1, game.validMoves(ChessPosition.of(5, 4)).size(), "Only the push to d6 is legal");
+
+        //the pawn already stands on the square it would have passed over
+        ChessGame blocked = Fen.parse("4k3/8/4p3/3P4/8/8/8/4K3 w - e6 0 1");
+        Assertions.assertEquals(0, GameState.enPassantColumn(blocked.state()));
+        Assertions.assertEquals(2, blocked.validMoves(ChessPosition.of(5, 4)).size(),
+                "The capture on e6 should be listed once");
+
+        //a state word that wasn't checked still can't capture a knight
+        ChessGame unchecked = new ChessGame(ChessGame.TeamColor.WHITE, game.getBoard(), GameState.encode(0, 5, 0));
+        Assertions.assertEquals(game.validMoves(ChessPosition.of(5, 4)),
+                unchecked.validMoves(ChessPosition.of(5, 4)));
+    }
+
+    @Test
+    @DisplayName("Records Written While Moving Are Whole")
+    public void writeWhileMoving() throws Exception {
+        List<ChessMove> moves = List.of(
+                new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null),
+                new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null),
+                new ChessMove(ChessPosition.of(4, 5), ChessPosition.of(5, 4), null),
+                new ChessMove(ChessPosition.of(8, 4), ChessPosition.of(5, 4), null));
+        ChessGame game = new ChessGame();
+        Set<String> reachable = new HashSet<>();
+        reachable.add(Fen.write(game));
+        for (ChessMove move : moves) {
+            game.makeMove(move);
+            reachable.add(Fen.write(game));
+        }
+        while (game.undoMove() != null) {
+            //back to the start
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService threads = Executors.newFixedThreadPool(3);
+        Future<?> writer = threads.submit(() -> {
+            try {
+                for (int round = 0; round < 2000; round++) {
+                    for (ChessMove move : moves) {
+                        game.makeMove(move);
+                    }
+                    for (int i = 0; i < moves.size(); i++) {
+                        game.undoMove();
+                    }
+                }
+            } finally {
+                done.set(true);
+            }
+            return null;
+        });
+        List<Future<String>> readers = List.of(threads.submit(() -> readUntil(game, done, reachable)),
+                threads.submit(() -> readUntil(game, done, reachable)));
+        writer.get();
+        for (Future<String> reader : readers) {
+            Assertions.assertNull(reader.get(), "A record was written for a position the game never reached");
+        }
+        threads.shutdown();
+    }
+
+    private static String readUntil(ChessGame game, AtomicBoolean done, Set<String> reachable) {
+        StringBuilder out = new StringBuilder();
+        while (!done.get()) {
+            out.setLength(0);
+            String fen = Fen.write(game, out).toString();
+            if (!reachable.contains(fen)) {
+                return fen;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    @DisplayName("Malformed Records Rejected")
+    public void malformedRecords() {
+        String[] bad = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkx - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1"
+        };
+        for (String fen : bad) {
+            Assertions.assertThrows(IllegalArgumentException.class, () -> Fen.parse(fen), fen);
+        }
+    }
+}
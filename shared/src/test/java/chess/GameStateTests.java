@@ -0,0 +1,184 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class GameStateTests {
+
+    @Test
+    @DisplayName("Castling Rights Follow Moves")
+    public void castlingRightsFollowMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(GameState.ALL_CASTLING, GameState.castling(game.state()));
+
+        game.makeMove(new ChessMove(ChessPosition.of(2, 8), ChessPosition.of(4, 8), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 1), ChessPosition.of(5, 1), null));
+        long beforeRookMove = game.zobristKey();
+        game.makeMove(new ChessMove(ChessPosition.of(1, 8), ChessPosition.of(3, 8), null));
+        Assertions.assertEquals(GameState.ALL_CASTLING & ~GameState.WHITE_KINGSIDE, GameState.castling(game.state()));
+
+        game.makeMove(new ChessMove(ChessPosition.of(8, 1), ChessPosition.of(6, 1), null));
+        game.makeMove(new ChessMove(ChessPosition.of(3, 8), ChessPosition.of(1, 8), null));
+        game.makeMove(new ChessMove(ChessPosition.of(6, 1), ChessPosition.of(8, 1), null));
+        Assertions.assertEquals(GameState.WHITE_QUEENSIDE | GameState.BLACK_KINGSIDE, GameState.castling(game.state()));
+        Assertions.assertNotEquals(new ChessGame().zobristKey(), game.zobristKey(),
+                "The same pieces with fewer castling rights should be a different position");
+
+        for (int i = 0; i < 4; i++) {
+            game.undoMove();
+        }
+        Assertions.assertEquals(beforeRookMove, game.zobristKey(), "Undo should restore castling rights");
+    }
+
+    @Test
+    @DisplayName("Castling Moves The Rook Both Ways")
+    public void castlingMovesRook() throws InvalidMoveException {
+        ChessGame game = gameWith("""
+                |r| | | |k| | |r|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |R| | | |K| | |R|
+                """, ChessGame.TeamColor.WHITE);
+        ChessBoard before = game.getBoard().copy();
+
+        game.doMove(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(1, 3), null));
+        Assertions.assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
+                game.getBoard().getPiece(ChessPosition.of(1, 4)), "doMove should recognise a castle");
+        Assertions.assertNull(game.getBoard().getPiece(ChessPosition.of(1, 1)));
+        Assertions.assertEquals(GameState.BLACK_KINGSIDE | GameState.BLACK_QUEENSIDE, GameState.castling(game.state()));
+
+        game.undoMove();
+        Assertions.assertEquals(before, game.getBoard());
+        Assertions.assertEquals(GameState.ALL_CASTLING, GameState.castling(game.state()));
+    }
+
+    @Test
+    @DisplayName("Unbacked Castles And Captures Are Plain Moves")
+    public void unbackedSpecialMoves() throws InvalidMoveException {
+        ChessGame game = gameWith("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |P|N| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |R| | | |K| | | |
+                """, ChessGame.TeamColor.WHITE);
+        ChessBoard before = game.getBoard().copy();
+
+        //no rook on h1, so the king just steps to g1
+        game.doMove(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(1, 7), null));
+        Assertions.assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+                game.getBoard().getPiece(ChessPosition.of(1, 7)));
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        game.undoMove();
+        Assertions.assertEquals(before, game.getBoard());
+
+        //a knight, not a pawn, stands beside the pawn, so nothing is captured
+        game.doMove(new ChessMove(ChessPosition.of(5, 4), ChessPosition.of(6, 5), null));
+        Assertions.assertEquals(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+                game.getBoard().getPiece(ChessPosition.of(5, 5)));
+        game.undoMove();
+        Assertions.assertEquals(before, game.getBoard());
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+    }
+
+    @Test
+    @DisplayName("En Passant Only Recorded When Capturable")
+    public void enPassantOnlyWhenCapturable() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertEquals(0, GameState.enPassantColumn(game.state()),
+                "No black pawn can capture, so there should be no en passant state");
+
+        game.makeMove(new ChessMove(ChessPosition.of(7, 1), ChessPosition.of(6, 1), null));
+        game.makeMove(new ChessMove(ChessPosition.of(4, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null));
+        Assertions.assertEquals(4, GameState.enPassantColumn(game.state()));
+
+        //passing the turn on gives up the capture
+        long withEnPassant = game.zobristKey();
+        game.makeMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(6, 1), ChessPosition.of(5, 1), null));
+        Assertions.assertEquals(0, GameState.enPassantColumn(game.state()));
+        game.undoMove();
+        game.undoMove();
+        Assertions.assertEquals(withEnPassant, game.zobristKey(), "Undo should restore the en passant state");
+    }
+
+    @Test
+    @DisplayName("En Passant Cannot Expose King Along Row")
+    public void enPassantHorizontalPin() throws InvalidMoveException {
+        ChessGame game = gameWith("""
+                | | | | |k| | | |
+                | | |p| | | | | |
+                | | | | | | | | |
+                |K| | |P| | | |r|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """, ChessGame.TeamColor.BLACK);
+        game.makeMove(new ChessMove(ChessPosition.of(7, 3), ChessPosition.of(5, 3), null));
+
+        ChessMove enPassant = new ChessMove(ChessPosition.of(5, 4), ChessPosition.of(6, 3), null);
+        Assertions.assertFalse(game.validMoves(ChessPosition.of(5, 4)).contains(enPassant),
+                "Taking both pawns off the row would leave the king in check from the rook");
+    }
+
+    @Test
+    @DisplayName("Halfmove Clock Resets On Pawn Moves And Captures")
+    public void halfmoveClock() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        Assertions.assertEquals(2, GameState.halfmoveClock(game.state()));
+
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertEquals(0, GameState.halfmoveClock(game.state()));
+
+        game.makeMove(new ChessMove(ChessPosition.of(6, 6), ChessPosition.of(4, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(3, 6), ChessPosition.of(5, 5), null));
+        Assertions.assertEquals(1, GameState.halfmoveClock(game.state()));
+
+        game.undoMove();
+        Assertions.assertEquals(0, GameState.halfmoveClock(game.state()));
+    }
+
+    private static ChessGame gameWith(String diagram, ChessGame.TeamColor turn) {
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int column = 1;
+        for (int i = 0; i < diagram.length(); i++) {
+            char c = diagram.charAt(i);
+            if (c == '\n') {
+                row--;
+                column = 1;
+            } else if (c == ' ') {
+                column++;
+            } else if (c != '|') {
+                ChessGame.TeamColor color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                ChessPiece.PieceType type = switch (Character.toLowerCase(c)) {
+                    case 'k' -> ChessPiece.PieceType.KING;
+                    case 'q' -> ChessPiece.PieceType.QUEEN;
+                    case 'b' -> ChessPiece.PieceType.BISHOP;
+                    case 'n' -> ChessPiece.PieceType.KNIGHT;
+                    case 'r' -> ChessPiece.PieceType.ROOK;
+                    default -> ChessPiece.PieceType.PAWN;
+                };
+                board.addPiece(ChessPosition.of(row, column), ChessPiece.of(color, type));
+                column++;
+            }
+        }
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(turn);
+        return game;
+    }
+}
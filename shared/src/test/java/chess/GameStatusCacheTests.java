@@ -0,0 +1,175 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class GameStatusCacheTests {
+
+    @Test
+    @DisplayName("Status Follows Moves")
+    public void statusFollowsMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus(ChessGame.TeamColor.WHITE));
+
+        //fool's mate
+        game.makeMove(new ChessMove(ChessPosition.of(2, 6), ChessPosition.of(3, 6), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(2, 7), ChessPosition.of(4, 7), null));
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus(ChessGame.TeamColor.WHITE));
+        game.makeMove(new ChessMove(ChessPosition.of(8, 4), ChessPosition.of(4, 8), null));
+
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE, game.getStatus(ChessGame.TeamColor.WHITE));
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Set Board Clears Status")
+    public void setBoardClearsStatus() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus(ChessGame.TeamColor.BLACK));
+
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        board.addPiece(ChessPosition.of(6, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        board.addPiece(ChessPosition.of(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        game.setBoard(board);
+
+        Assertions.assertEquals(ChessGame.GameStatus.STALEMATE, game.getStatus(ChessGame.TeamColor.BLACK));
+
+        board.addPiece(ChessPosition.of(6, 2), null);
+        board.addPiece(ChessPosition.of(7, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+        game.setBoard(board);
+
+        Assertions.assertEquals(ChessGame.GameStatus.CHECK, game.getStatus(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Concurrent Readers Agree")
+    public void concurrentReadersAgree() throws Exception {
+        ChessGame game = PerftPositions.find("position6").newGame();
+        ChessGame reference = PerftPositions.find("position6").newGame();
+        List<ChessPosition> squares = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                squares.add(ChessPosition.of(row, col));
+            }
+        }
+
+        ExecutorService readers = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int reader = 0; reader < 8; reader++) {
+            results.add(readers.submit(() -> {
+                for (int round = 0; round < 200; round++) {
+                    for (ChessPosition square : squares) {
+                        if (!sameMoves(reference.validMoves(square), game.validMoves(square))) {
+                            return false;
+                        }
+                    }
+                    if (game.getStatus(ChessGame.TeamColor.WHITE) != ChessGame.GameStatus.ONGOING
+                            || game.isInCheckmate(ChessGame.TeamColor.BLACK) || game.isInCheck(ChessGame.TeamColor.WHITE)) {
+                        return false;
+                    }
+                }
+                return true;
+            }));
+        }
+        for (Future<Boolean> result : results) {
+            Assertions.assertTrue(result.get(), "A reader saw a different answer than a single-threaded game");
+        }
+        readers.shutdown();
+        Assertions.assertEquals(reference, game, "Reading should leave the game unchanged");
+    }
+
+    @Test
+    @DisplayName("Readers Only See Reachable Positions")
+    public void readersOnlySeeReachablePositions() throws Exception {
+        //fool's mate, played out and taken back while the readers watch
+        List<ChessMove> moves = List.of(
+                new ChessMove(ChessPosition.of(2, 6), ChessPosition.of(3, 6), null),
+                new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null),
+                new ChessMove(ChessPosition.of(2, 7), ChessPosition.of(4, 7), null),
+                new ChessMove(ChessPosition.of(8, 4), ChessPosition.of(4, 8), null));
+
+        ChessGame game = new ChessGame();
+        Map<Long, ChessGame.GameStatus> statuses = new HashMap<>();
+        Set<Set<ChessMove>> moveSets = new HashSet<>();
+        for (int i = 0; ; i++) {
+            statuses.put(game.zobristKey(), game.getStatus(ChessGame.TeamColor.WHITE));
+            moveSets.add(new HashSet<>(game.validMoves(ChessGame.TeamColor.WHITE)));
+            if (i == moves.size()) {
+                break;
+            }
+            game.makeMove(moves.get(i));
+        }
+        while (game.undoMove() != null) {
+            //back to the start
+        }
+
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService threads = Executors.newFixedThreadPool(5);
+        Future<?> writer = threads.submit(() -> {
+            try {
+                for (int round = 0; round < 2000; round++) {
+                    for (ChessMove move : moves) {
+                        game.makeMove(move);
+                    }
+                    for (int i = 0; i < moves.size(); i++) {
+                        game.undoMove();
+                    }
+                }
+            } finally {
+                done.set(true);
+            }
+            return null;
+        });
+
+        List<Future<String>> results = new ArrayList<>();
+        for (int reader = 0; reader < 4; reader++) {
+            results.add(threads.submit(() -> {
+                while (!done.get()) {
+                    ChessGame.GameStatus status = game.getStatus(ChessGame.TeamColor.WHITE);
+                    if (!statuses.containsValue(status)) {
+                        return "status " + status;
+                    }
+                    if (!moveSets.contains(new HashSet<>(game.validMoves(ChessGame.TeamColor.WHITE)))) {
+                        return "valid moves";
+                    }
+                    //a copy pairs a key with a status from one and the same position
+                    ChessGame copy = game.copy();
+                    ChessGame.GameStatus expected = statuses.get(copy.zobristKey());
+                    if (expected == null || expected != copy.getStatus(ChessGame.TeamColor.WHITE)) {
+                        return "copy";
+                    }
+                }
+                return null;
+            }));
+        }
+        writer.get();
+        for (Future<String> result : results) {
+            Assertions.assertNull(result.get(), "A reader saw a position the writer never reached");
+        }
+        threads.shutdown();
+        Assertions.assertEquals(new ChessGame(), game, "Every move should have been taken back");
+    }
+
+    private static boolean sameMoves(Collection<ChessMove> expected, Collection<ChessMove> actual) {
+        if (expected == null || actual == null) {
+            return expected == actual;
+        }
+        return new HashSet<>(expected).equals(new HashSet<>(actual));
+    }
+}
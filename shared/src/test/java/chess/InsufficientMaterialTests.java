@@ -0,0 +1,79 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class InsufficientMaterialTests {
+
+    private static final ChessPiece WHITE_KING = ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
+    private static final ChessPiece BLACK_KING = ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
+
+    @Test
+    @DisplayName("Lone Minor Pieces Cannot Mate")
+    public void loneMinorPieces() {
+        Assertions.assertEquals(ChessGame.GameStatus.DRAW_BY_INSUFFICIENT_MATERIAL, statusOf(kingsOnly()));
+
+        ChessBoard bishop = kingsOnly();
+        bishop.addPiece(ChessPosition.of(4, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        Assertions.assertEquals(ChessGame.GameStatus.DRAW_BY_INSUFFICIENT_MATERIAL, statusOf(bishop));
+
+        ChessBoard knight = kingsOnly();
+        knight.addPiece(ChessPosition.of(4, 4), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(ChessGame.GameStatus.DRAW_BY_INSUFFICIENT_MATERIAL, statusOf(knight));
+    }
+
+    @Test
+    @DisplayName("Bishops On One Color Cannot Mate")
+    public void sameColoredBishops() {
+        ChessBoard board = kingsOnly();
+        board.addPiece(ChessPosition.of(1, 3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        board.addPiece(ChessPosition.of(8, 6), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP));
+        Assertions.assertEquals(ChessGame.GameStatus.DRAW_BY_INSUFFICIENT_MATERIAL, statusOf(board));
+
+        board.addPiece(ChessPosition.of(2, 3), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, statusOf(board),
+                "Bishops on both colors can still mate");
+    }
+
+    @Test
+    @DisplayName("Enough Material Keeps The Game Going")
+    public void sufficientMaterial() {
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, new ChessGame().getStatus(ChessGame.TeamColor.WHITE));
+
+        ChessBoard knights = kingsOnly();
+        knights.addPiece(ChessPosition.of(4, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        knights.addPiece(ChessPosition.of(4, 5), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, statusOf(knights));
+
+        ChessBoard pawn = kingsOnly();
+        pawn.addPiece(ChessPosition.of(2, 1), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, statusOf(pawn));
+    }
+
+    @Test
+    @DisplayName("Stalemate Still Reported")
+    public void stalemateTakesPrecedence() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(8, 1), BLACK_KING);
+        board.addPiece(ChessPosition.of(6, 2), WHITE_KING);
+        board.addPiece(ChessPosition.of(6, 4), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertTrue(game.isInStalemate(ChessGame.TeamColor.BLACK));
+    }
+
+    private static ChessBoard kingsOnly() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(1, 5), WHITE_KING);
+        board.addPiece(ChessPosition.of(8, 5), BLACK_KING);
+        return board;
+    }
+
+    private static ChessGame.GameStatus statusOf(ChessBoard board) {
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        return game.getStatus(ChessGame.TeamColor.WHITE);
+    }
+}
@@ -0,0 +1,44 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class KingPositionTests {
+
+    @Test
+    @DisplayName("Kings Found On Starting Board")
+    public void startingBoard() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        Assertions.assertEquals(ChessPosition.of(1, 5), board.getKingPosition(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(ChessPosition.of(8, 5), board.getKingPosition(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("No King Gives Null")
+    public void noKing() {
+        ChessBoard board = new ChessBoard();
+        Assertions.assertNull(board.getKingPosition(ChessGame.TeamColor.WHITE));
+
+        board.addPiece(ChessPosition.of(3, 3), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        Assertions.assertNull(board.getKingPosition(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(ChessPosition.of(3, 3), board.getKingPosition(ChessGame.TeamColor.BLACK));
+
+        board.addPiece(ChessPosition.of(3, 3), null);
+        Assertions.assertNull(board.getKingPosition(ChessGame.TeamColor.BLACK), "Removing the king should clear it");
+    }
+
+    @Test
+    @DisplayName("King Followed After It Moves")
+    public void kingMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(2, 5), null));
+        Assertions.assertEquals(ChessPosition.of(2, 5), game.getBoard().getKingPosition(ChessGame.TeamColor.WHITE));
+
+        game.undoMove();
+        Assertions.assertEquals(ChessPosition.of(1, 5), game.getBoard().getKingPosition(ChessGame.TeamColor.WHITE));
+    }
+}
@@ -0,0 +1,77 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+public class PerftTests {
+
+    @Test
+    @DisplayName("Reference Position Counts")
+    public void referenceCounts() {
+        for (PerftPositions.Reference reference : PerftPositions.all()) {
+            for (int depth = 1; depth <= reference.maxDepth(); depth++) {
+                Assertions.assertEquals(reference.expectedNodes(depth), Perft.perft(reference.newGame(), depth),
+                        "Wrong perft count for " + reference.name() + " at depth " + depth);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Divide Sums To Perft")
+    public void divideSumsToPerft() {
+        ChessGame game = new ChessGame();
+        Map<ChessMove, Long> counts = Perft.divide(game, 3);
+
+        Assertions.assertEquals(20, counts.size(), "Every legal first move should be listed");
+        Assertions.assertEquals(8_902, counts.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(new ChessGame(), game, "Perft should leave the game unchanged");
+    }
+
+    @Test
+    @DisplayName("Readers Never See The Search")
+    public void readersNeverSeeSearch() throws Exception {
+        ChessGame game = new ChessGame();
+        long key = game.zobristKey();
+        CompletableFuture<Long> count = CompletableFuture.supplyAsync(() -> Perft.perft(game, 4));
+        while (!count.isDone()) {
+            Assertions.assertEquals(key, game.zobristKey(), "Perft should count on a copy of the game");
+            Assertions.assertEquals(20, game.validMoves(ChessGame.TeamColor.WHITE).size());
+        }
+        Assertions.assertEquals(197_281, count.get());
+    }
+
+    @Test
+    @DisplayName("Parallel Perft Matches Reference Counts")
+    public void parallelReferenceCounts() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (PerftPositions.Reference reference : PerftPositions.all()) {
+            //the deepest counts are already covered serially and would only slow the suite down
+            for (int depth = 1; depth <= Math.min(reference.maxDepth(), 3); depth++) {
+                for (int splitDepth = 1; splitDepth <= 3; splitDepth++) {
+                    long nodes = Perft.parallelPerft(reference.newGame(), depth, splitDepth, pool, new PerftCache(1));
+                    Assertions.assertEquals(reference.expectedNodes(depth), nodes, "Wrong parallel perft count for "
+                            + reference.name() + " at depth " + depth + " splitting " + splitDepth + " plies");
+                }
+            }
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    @DisplayName("Parallel Divide Matches Divide")
+    public void parallelDivideMatchesDivide() {
+        ChessGame game = new ChessGame();
+        PerftCache cache = new PerftCache(1);
+        Map<ChessMove, Long> counts = Perft.parallelDivide(game, 4, 2, ForkJoinPool.commonPool(), cache);
+
+        Assertions.assertEquals(Perft.divide(new ChessGame(), 4), counts);
+        Assertions.assertEquals(new ChessGame(), game, "Parallel perft should leave the game unchanged");
+        Assertions.assertEquals(197_281, Perft.parallelPerft(game, 4, 2, ForkJoinPool.commonPool(), cache),
+                "A reused cache should give the same count");
+    }
+}
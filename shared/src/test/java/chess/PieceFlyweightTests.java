@@ -0,0 +1,47 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PieceFlyweightTests {
+
+    @Test
+    @DisplayName("Pieces Are Shared")
+    public void piecesAreShared() {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+                ChessPiece piece = ChessPiece.of(color, type);
+                Assertions.assertSame(piece, ChessPiece.of(color, type));
+                Assertions.assertEquals(new ChessPiece(color, type), piece);
+            }
+        }
+
+        ChessBoard first = new ChessBoard();
+        first.resetBoard();
+        ChessBoard second = new ChessBoard();
+        second.resetBoard();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPosition position = new ChessPosition(row, col);
+                Assertions.assertSame(first.getPiece(position), second.getPiece(position),
+                        "Boards should hand out the same piece objects");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Promotion Uses Shared Piece")
+    public void promotionUsesSharedPiece() throws InvalidMoveException {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 1), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(8, 8), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(7, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+
+        game.makeMove(new ChessMove(new ChessPosition(7, 2), new ChessPosition(8, 2), ChessPiece.PieceType.KNIGHT));
+        Assertions.assertSame(ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+                game.getBoard().getPiece(new ChessPosition(8, 2)));
+    }
+}
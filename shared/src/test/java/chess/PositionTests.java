@@ -0,0 +1,137 @@
+package chess;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class PositionTests {
+
+    @Test
+    @DisplayName("Snapshot Follows Moves")
+    public void snapshotFollowsMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Position start = game.getPosition();
+        Assertions.assertSame(start, game.getPosition(), "Reading should not take a new snapshot");
+
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Position afterMove = game.getPosition();
+
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, start.getTeamTurn());
+        Assertions.assertNotNull(start.getPiece(ChessPosition.of(2, 5)), "An old snapshot should not change");
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, afterMove.getTeamTurn());
+        Assertions.assertNull(afterMove.getPiece(ChessPosition.of(2, 5)));
+        Assertions.assertEquals(game.zobristKey(), afterMove.zobristKey());
+        Assertions.assertEquals(game.getStatus(ChessGame.TeamColor.BLACK), afterMove.getStatus(ChessGame.TeamColor.BLACK));
+
+        game.undoMove();
+        Assertions.assertEquals(start, game.getPosition(), "Undoing a move should publish the earlier position");
+    }
+
+    @Test
+    @DisplayName("Snapshot Is Not Changed Through Its Board")
+    public void snapshotBoardIsCopy() {
+        ChessGame game = new ChessGame();
+        Position position = game.getPosition();
+        position.getBoard().addPiece(ChessPosition.of(4, 4),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+
+        Assertions.assertNull(position.getPiece(ChessPosition.of(4, 4)));
+        Assertions.assertEquals(new ChessGame(), position.toGame());
+    }
+
+    @Test
+    @DisplayName("Snapshot Of Deserialized Game")
+    public void deserializedGame() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 4), ChessPosition.of(4, 4), null));
+
+        Gson gson = new Gson();
+        ChessGame copy = gson.fromJson(gson.toJson(game), ChessGame.class);
+        Assertions.assertEquals(game.getPosition(), copy.getPosition());
+    }
+
+    @Test
+    @DisplayName("Every Game Starts With A Snapshot")
+    public void builtGamesPublish() throws InvalidMoveException {
+        ChessGame parsed = Fen.parse(PerftPositions.find("kiwipete").fen());
+        Position first = parsed.getPosition();
+        Assertions.assertEquals(1, first.getVersion());
+        Assertions.assertEquals(parsed.zobristKey(), first.zobristKey());
+
+        parsed.makeMove(new ChessMove(ChessPosition.of(1, 5), ChessPosition.of(1, 7), null));
+        Assertions.assertEquals(2, parsed.getPosition().getVersion());
+        Assertions.assertEquals(1, first.getVersion(), "An old snapshot should keep its version");
+
+        ChessGame copy = parsed.copy();
+        Assertions.assertEquals(parsed.getPosition(), copy.getPosition());
+        Assertions.assertEquals(parsed.getPosition(), ChessGameCodec.decode(ChessGameCodec.encode(parsed)).getPosition());
+        Assertions.assertEquals(parsed.getPosition(), parsed.getPosition().toGame().getPosition());
+    }
+
+    @Test
+    @DisplayName("Copies Take Their Snapshot When Asked")
+    public void copiesPublishLazily() {
+        ChessGame game = new ChessGame();
+        ChessGame copy = game.copy();
+        //a search plays on the copy without publishing anything
+        copy.doMove(PackedMove.encode(Bitboards.square(2, 5), Bitboards.square(4, 5), PackedMove.DOUBLE_PAWN_PUSH));
+
+        Position snapshot = copy.getPosition();
+        Assertions.assertEquals(copy.zobristKey(), snapshot.zobristKey(), "The snapshot should show the copy as it is now");
+        Assertions.assertEquals(1, snapshot.getVersion());
+        Assertions.assertSame(snapshot, copy.getPosition());
+        Assertions.assertEquals(new ChessGame().getPosition(), game.getPosition(), "The original should be untouched");
+    }
+
+    @Test
+    @DisplayName("Readers See Whole Moves")
+    public void readersSeeWholeMoves() throws Exception {
+        //every position the writer passes through, played out ahead of time
+        ChessMove[] moves = {
+                new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null),
+                new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null),
+                new ChessMove(ChessPosition.of(3, 6), ChessPosition.of(1, 7), null),
+                new ChessMove(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null)
+        };
+        ChessGame script = new ChessGame();
+        Set<Long> reachable = new HashSet<>();
+        reachable.add(script.zobristKey());
+        for (ChessMove move : moves) {
+            script.makeMove(move);
+            reachable.add(script.zobristKey());
+        }
+
+        ChessGame game = new ChessGame();
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicBoolean torn = new AtomicBoolean();
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(() -> {
+                while (!done.get()) {
+                    Position position = game.getPosition();
+                    if (!reachable.contains(position.zobristKey())
+                            || Long.bitCount(position.getOccupancy(ChessGame.TeamColor.WHITE)) != 16) {
+                        torn.set(true);
+                    }
+                }
+            });
+            readers[i].start();
+        }
+
+        for (int round = 0; round < 20_000; round++) {
+            for (ChessMove move : moves) {
+                game.makeMove(move);
+            }
+        }
+        done.set(true);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        Assertions.assertFalse(torn.get(), "A reader saw a position from the middle of a move");
+    }
+}
@@ -0,0 +1,79 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class RepetitionTests {
+
+    private static final ChessMove[] KNIGHT_SHUFFLE = {
+            new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null),
+            new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null),
+            new ChessMove(ChessPosition.of(3, 6), ChessPosition.of(1, 7), null),
+            new ChessMove(ChessPosition.of(6, 6), ChessPosition.of(8, 7), null)
+    };
+
+    @Test
+    @DisplayName("Threefold Repetition Is A Draw")
+    public void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(1, game.getRepetitionCount());
+
+        shuffle(game);
+        Assertions.assertEquals(2, game.getRepetitionCount());
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus(ChessGame.TeamColor.WHITE));
+
+        shuffle(game);
+        Assertions.assertEquals(3, game.getRepetitionCount());
+        Assertions.assertEquals(ChessGame.GameStatus.DRAW_BY_REPETITION, game.getStatus(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(ChessGame.GameStatus.DRAW_BY_REPETITION,
+                game.getPosition().getStatus(ChessGame.TeamColor.WHITE));
+
+        game.undoMove();
+        Assertions.assertEquals(2, game.getRepetitionCount(), "Undo should take the position back off the history");
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus(ChessGame.TeamColor.BLACK));
+
+        ChessGame copy = game.copy();
+        copy.makeMove(KNIGHT_SHUFFLE[3]);
+        Assertions.assertEquals(3, copy.getRepetitionCount(), "A copy should keep the history");
+    }
+
+    @Test
+    @DisplayName("Pawn Moves Cut The History Off")
+    public void irreversibleMoveResetsRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffle(game);
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        game.makeMove(new ChessMove(ChessPosition.of(7, 5), ChessPosition.of(5, 5), null));
+        Assertions.assertEquals(1, game.getRepetitionCount());
+
+        shuffle(game);
+        shuffle(game);
+        Assertions.assertEquals(3, game.getRepetitionCount());
+    }
+
+    @Test
+    @DisplayName("Fifty Moves Without Progress Is A Draw")
+    public void fiftyMoveRule() throws InvalidMoveException {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessGame game = new ChessGame(ChessGame.TeamColor.WHITE, board,
+                GameState.encode(GameState.ALL_CASTLING, 0, 99));
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus(ChessGame.TeamColor.WHITE));
+
+        game.makeMove(KNIGHT_SHUFFLE[0]);
+        Assertions.assertEquals(100, game.getHalfmoveClock());
+        Assertions.assertEquals(ChessGame.GameStatus.DRAW_BY_FIFTY_MOVES, game.getStatus(ChessGame.TeamColor.BLACK));
+
+        game.undoMove();
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertEquals(ChessGame.GameStatus.ONGOING, game.getStatus(ChessGame.TeamColor.BLACK),
+                "A pawn move should restart the count");
+    }
+
+    private static void shuffle(ChessGame game) throws InvalidMoveException {
+        for (ChessMove move : KNIGHT_SHUFFLE) {
+            game.makeMove(move);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SlidingAttacksTests {
+
+    @Test
+    @DisplayName("Magic Tables Match Ray Walking")
+    public void tablesMatchReference() {
+        Assertions.assertEquals(-1, SlidingAttacks.verify(1000, 240L),
+                "Magic attack tables disagreed with the ray-walking generator");
+    }
+
+    @Test
+    @DisplayName("Blocked Rook Attacks")
+    public void blockedRookAttacks() {
+        int square = Bitboards.square(4, 4);
+        long occupancy = Bitboards.bit(Bitboards.square(6, 4)) | Bitboards.bit(Bitboards.square(4, 2));
+
+        long attacks = SlidingAttacks.rookAttacks(square, occupancy);
+
+        Assertions.assertTrue((attacks & Bitboards.bit(Bitboards.square(6, 4))) != 0, "Blocker should be attacked");
+        Assertions.assertEquals(0, attacks & Bitboards.bit(Bitboards.square(7, 4)), "Ray should stop at blocker");
+        Assertions.assertEquals(11, Long.bitCount(attacks), "Wrong number of attacked squares");
+    }
+
+    /*
+     * The checks below use attack sets written out by hand, so they don't
+     * depend on walkRays, which the tables are built from
+     */
+
+    @Test
+    @DisplayName("Known Attacks On An Empty Board")
+    public void emptyBoardAttacks() {
+        Assertions.assertEquals(squares("b1", "c1", "d1", "e1", "f1", "g1", "h1",
+                        "a2", "a3", "a4", "a5", "a6", "a7", "a8"),
+                SlidingAttacks.rookAttacks(square("a1"), 0));
+        Assertions.assertEquals(squares("a1", "b2", "c3", "e5", "f6", "g7", "h8", "a7", "b6", "c5", "e3", "f2", "g1"),
+                SlidingAttacks.bishopAttacks(square("d4"), 0));
+        Assertions.assertEquals(squares("g2", "f3", "e4", "d5", "c6", "b7", "a8"),
+                SlidingAttacks.bishopAttacks(square("h1"), 0));
+    }
+
+    @Test
+    @DisplayName("Known Attacks Through Blockers")
+    public void blockedAttacks() {
+        Assertions.assertEquals(squares("e5", "e6", "d4", "c4", "e3", "e2", "f4", "g4"),
+                SlidingAttacks.rookAttacks(square("e4"), squares("e6", "c4", "e2", "g4", "e8", "a4")));
+        Assertions.assertEquals(squares("b2", "d2", "e3"),
+                SlidingAttacks.bishopAttacks(square("c1"), squares("b2", "e3", "a3", "f4")));
+        Assertions.assertEquals(squares("g8", "f8", "h7", "h6", "g7"),
+                SlidingAttacks.queenAttacks(square("h8"), squares("f8", "h6", "g7", "a1")));
+    }
+
+    @Test
+    @DisplayName("Edge Blockers Are Still Attacked")
+    public void edgeBlockers() {
+        Assertions.assertEquals(squares("a1", "b1", "c1", "e1", "f1", "g1", "h1",
+                        "d2", "d3", "d4", "d5", "d6", "d7", "d8"),
+                SlidingAttacks.rookAttacks(square("d1"), squares("a1", "h1", "d8")));
+    }
+
+    @Test
+    @DisplayName("Known Lines Between Squares")
+    public void betweenAndLine() {
+        Assertions.assertEquals(squares("b2", "c3", "d4", "e5", "f6", "g7"),
+                SlidingAttacks.between(square("a1"), square("h8")));
+        Assertions.assertEquals(squares("c4", "d4"), SlidingAttacks.between(square("b4"), square("e4")));
+        Assertions.assertEquals(0, SlidingAttacks.between(square("a1"), square("b3")));
+        Assertions.assertEquals(squares("a8", "b7", "c6", "d5", "e4", "f3", "g2", "h1"),
+                SlidingAttacks.line(square("c6"), square("f3")));
+    }
+
+    private static int square(String name) {
+        return Bitboards.square(name.charAt(1) - '0', name.charAt(0) - 'a' + 1);
+    }
+
+    private static long squares(String... names) {
+        long bitboard = 0;
+        for (String name : names) {
+            bitboard |= Bitboards.bit(square(name));
+        }
+        return bitboard;
+    }
+}
@@ -0,0 +1,69 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class SquareAttackTests {
+
+    private static final ChessGame.TeamColor WHITE = ChessGame.TeamColor.WHITE;
+    private static final ChessGame.TeamColor BLACK = ChessGame.TeamColor.BLACK;
+
+    @Test
+    @DisplayName("Pawns Attack Forward Diagonals Only")
+    public void pawnDirection() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(4, 4), ChessPiece.of(WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(ChessPosition.of(6, 6), ChessPiece.of(BLACK, ChessPiece.PieceType.PAWN));
+
+        Assertions.assertTrue(board.isSquareAttacked(ChessPosition.of(5, 3), WHITE));
+        Assertions.assertTrue(board.isSquareAttacked(ChessPosition.of(5, 5), WHITE));
+        Assertions.assertFalse(board.isSquareAttacked(ChessPosition.of(3, 3), WHITE), "White pawns attack upward");
+        Assertions.assertFalse(board.isSquareAttacked(ChessPosition.of(5, 4), WHITE), "Pawns don't attack straight ahead");
+
+        Assertions.assertTrue(board.isSquareAttacked(ChessPosition.of(5, 5), BLACK));
+        Assertions.assertTrue(board.isSquareAttacked(ChessPosition.of(5, 7), BLACK));
+        Assertions.assertFalse(board.isSquareAttacked(ChessPosition.of(7, 5), BLACK), "Black pawns attack downward");
+    }
+
+    @Test
+    @DisplayName("Knight And King Attacks")
+    public void leaperAttacks() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(1, 2), ChessPiece.of(WHITE, ChessPiece.PieceType.KNIGHT));
+        board.addPiece(ChessPosition.of(8, 8), ChessPiece.of(BLACK, ChessPiece.PieceType.KING));
+
+        Assertions.assertTrue(board.isSquareAttacked(ChessPosition.of(3, 3), WHITE));
+        Assertions.assertTrue(board.isSquareAttacked(ChessPosition.of(2, 4), WHITE));
+        Assertions.assertFalse(board.isSquareAttacked(ChessPosition.of(2, 2), WHITE));
+
+        Assertions.assertTrue(board.isSquareAttacked(ChessPosition.of(7, 7), BLACK));
+        Assertions.assertTrue(board.isSquareAttacked(ChessPosition.of(8, 7), BLACK));
+        Assertions.assertFalse(board.isSquareAttacked(ChessPosition.of(6, 6), BLACK), "Kings reach one square only");
+    }
+
+    @Test
+    @DisplayName("Sliders Stop At Blockers")
+    public void blockedSlider() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(1, 1), ChessPiece.of(BLACK, ChessPiece.PieceType.ROOK));
+        board.addPiece(ChessPosition.of(4, 1), ChessPiece.of(WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(ChessPosition.of(8, 8), ChessPiece.of(BLACK, ChessPiece.PieceType.BISHOP));
+
+        Assertions.assertTrue(board.isSquareAttacked(ChessPosition.of(4, 1), BLACK), "The blocker itself is attacked");
+        Assertions.assertFalse(board.isSquareAttacked(ChessPosition.of(5, 1), BLACK), "Squares past the blocker are not");
+        Assertions.assertTrue(board.isSquareAttacked(ChessPosition.of(1, 8), BLACK));
+        Assertions.assertTrue(board.isSquareAttacked(ChessPosition.of(2, 2), BLACK), "Bishop attacks down the diagonal");
+    }
+
+    @Test
+    @DisplayName("Unattacked Square")
+    public void notAttacked() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        Assertions.assertFalse(board.isSquareAttacked(ChessPosition.of(4, 5), WHITE));
+        Assertions.assertFalse(board.isSquareAttacked(ChessPosition.of(4, 5), BLACK));
+        Assertions.assertTrue(board.isSquareAttacked(ChessPosition.of(3, 1), WHITE));
+        Assertions.assertFalse(board.isSquareAttacked(ChessPosition.of(3, 1), BLACK));
+    }
+}
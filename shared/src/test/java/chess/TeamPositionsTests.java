@@ -0,0 +1,61 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+
+public class TeamPositionsTests {
+
+    @Test
+    @DisplayName("Team Positions Match Board Scan")
+    public void teamPositionsMatchScan() {
+        ChessBoard board = PerftPositions.find("position6").newGame().getBoard();
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            List<ChessPosition> scanned = new ArrayList<>();
+            for (int row = 1; row <= 8; row++) {
+                for (int col = 1; col <= 8; col++) {
+                    ChessPiece piece = board.getPiece(new ChessPosition(row, col));
+                    if (piece != null && piece.getTeamColor() == color) {
+                        scanned.add(new ChessPosition(row, col));
+                    }
+                }
+            }
+            Assertions.assertEquals(scanned, board.getTeamPositions(color));
+            Assertions.assertEquals(scanned.size(), board.getPieceCount(color));
+        }
+    }
+
+    @Test
+    @DisplayName("Team Positions Follow Changes")
+    public void teamPositionsFollowChanges() {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(new ChessPosition(1, 5), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING));
+        board.addPiece(new ChessPosition(4, 4), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        Assertions.assertEquals(2, board.getPieceCount(ChessGame.TeamColor.WHITE));
+
+        //replacing a piece with an enemy one moves the square to the other team
+        board.addPiece(new ChessPosition(4, 4), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        Assertions.assertEquals(List.of(new ChessPosition(1, 5)), board.getTeamPositions(ChessGame.TeamColor.WHITE));
+        Assertions.assertEquals(List.of(new ChessPosition(4, 4)), board.getTeamPositions(ChessGame.TeamColor.BLACK));
+    }
+
+    @Test
+    @DisplayName("Team Valid Moves Match Per Piece")
+    public void teamValidMovesMatchPerPiece() {
+        ChessGame game = PerftPositions.find("position6").newGame();
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            Collection<ChessMove> perPiece = new HashSet<>();
+            for (ChessPosition position : game.getBoard().getTeamPositions(color)) {
+                perPiece.addAll(game.validMoves(position));
+            }
+            Collection<ChessMove> team = game.validMoves(color);
+            Assertions.assertEquals(perPiece.size(), team.size());
+            Assertions.assertEquals(perPiece, new HashSet<>(team));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class UndoMoveTests {
+
+    @Test
+    @DisplayName("Undo Restores Board And Turn")
+    public void undoRestoresBoard() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessBoard start = new ChessBoard();
+        start.resetBoard();
+
+        ChessMove[] moves = {
+                new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null),
+                new ChessMove(ChessPosition.of(7, 4), ChessPosition.of(5, 4), null),
+                new ChessMove(ChessPosition.of(4, 5), ChessPosition.of(5, 4), null),
+                new ChessMove(ChessPosition.of(8, 4), ChessPosition.of(5, 4), null),
+        };
+        for (ChessMove move : moves) {
+            game.makeMove(move);
+        }
+        Assertions.assertNotEquals(start, game.getBoard());
+
+        for (int i = moves.length - 1; i >= 0; i--) {
+            Assertions.assertEquals(moves[i], game.undoMove(), "undoMove returned the wrong move");
+        }
+
+        Assertions.assertEquals(start, game.getBoard(), "Board was not restored");
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn(), "Turn was not restored");
+        Assertions.assertNull(game.undoMove(), "Nothing should be left to undo");
+    }
+
+    @Test
+    @DisplayName("Undo Promotion Capture")
+    public void undoPromotionCapture() throws InvalidMoveException {
+        ChessBoard board = new ChessBoard();
+        board.addPiece(ChessPosition.of(7, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        board.addPiece(ChessPosition.of(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        ChessBoard before = new ChessBoard();
+        before.addPiece(ChessPosition.of(7, 2), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        before.addPiece(ChessPosition.of(8, 1), new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+
+        game.doMove(new ChessMove(ChessPosition.of(7, 2), ChessPosition.of(8, 1), ChessPiece.PieceType.KNIGHT));
+        Assertions.assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+                game.getBoard().getPiece(ChessPosition.of(8, 1)));
+
+        game.undoMove();
+        Assertions.assertEquals(before, game.getBoard(), "Promotion capture was not undone");
+    }
+}
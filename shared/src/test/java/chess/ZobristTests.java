@@ -0,0 +1,45 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ZobristTests {
+
+    @Test
+    @DisplayName("Transpositions Share A Key")
+    public void transpositionsShareKey() throws InvalidMoveException {
+        ChessGame knightsFirst = new ChessGame();
+        knightsFirst.makeMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+        knightsFirst.makeMove(new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        knightsFirst.makeMove(new ChessMove(ChessPosition.of(1, 2), ChessPosition.of(3, 3), null));
+
+        ChessGame otherKnightFirst = new ChessGame();
+        otherKnightFirst.makeMove(new ChessMove(ChessPosition.of(1, 2), ChessPosition.of(3, 3), null));
+        otherKnightFirst.makeMove(new ChessMove(ChessPosition.of(8, 7), ChessPosition.of(6, 6), null));
+        otherKnightFirst.makeMove(new ChessMove(ChessPosition.of(1, 7), ChessPosition.of(3, 6), null));
+
+        Assertions.assertEquals(knightsFirst, otherKnightFirst);
+        Assertions.assertEquals(knightsFirst.zobristKey(), otherKnightFirst.zobristKey());
+    }
+
+    @Test
+    @DisplayName("Key Covers Side To Move And Undo")
+    public void keyCoversTurnAndUndo() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        long startKey = game.zobristKey();
+
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertNotEquals(startKey, game.zobristKey(), "Side to move should change the key");
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+
+        game.makeMove(new ChessMove(ChessPosition.of(2, 5), ChessPosition.of(4, 5), null));
+        Assertions.assertNotEquals(startKey, game.zobristKey());
+        game.undoMove();
+        Assertions.assertEquals(startKey, game.zobristKey(), "Undo should restore the key");
+
+        ChessBoard rebuilt = new ChessBoard();
+        rebuilt.resetBoard();
+        Assertions.assertEquals(rebuilt.zobristKey(), game.getBoard().zobristKey());
+    }
+}